@@ -19,6 +19,8 @@ public class ConsoleApp
     	try {	
 	        final String FILE_NAME = args.length > 0 ? args[0] : "GaSchedule.json";
 	        final long startTime = System.currentTimeMillis();
+	        if (args.length > 1)
+	        	Configuration.setSeed(Long.parseLong(args[1]));
 
 	        Configuration configuration = new Configuration();
 	        File targetFile = new File(System.getProperty("user.dir") + "/" + FILE_NAME);
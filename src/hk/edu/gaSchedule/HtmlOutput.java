@@ -42,7 +42,7 @@ public class HtmlOutput
 		return sb.toString();
 	}
 	
-	private static String getCourseClass(final CourseClass cc, final boolean[] criterias, final int ci)
+	private static String getCourseClass(final CourseClass cc, final Schedule solution, final int ci)
 	{
 		StringBuilder sb = new StringBuilder();
 		sb.append(cc.Course.Name).append("<br />").append(cc.Professor.Name).append("<br />");
@@ -54,7 +54,7 @@ public class HtmlOutput
 		for(int i=0; i< CRITERIAS.length; ++i)
 		{
 			sb.append("<span style='color:");
-			if(criterias[ci + i])
+			if(solution.getCriteria(ci + i))
 			{
 				sb.append(COLOR1).append("' title='");
 				sb.append(OK_DESCR[i]);
@@ -80,7 +80,7 @@ public class HtmlOutput
 		for (CourseClass cc : classes.keySet())
 		{
 			// coordinate of time-space slot
-			Reservation reservation = Reservation.getReservation(classes.get(cc));
+			Reservation reservation = solution.getConfiguration().getReservation(classes.get(cc));
 			int dayId = reservation.getDay() + 1;
 			int periodId = reservation.getTime() + 1;
 			int roomId = reservation.getRoom();
@@ -107,7 +107,7 @@ public class HtmlOutput
 				roomSchedule = new String[ROOM_COLUMN_NUMBER];
 				timeTable.put(key, roomSchedule);
 			}
-			roomSchedule[dayId] = getCourseClass(cc, solution.getCriteria(), ci);
+			roomSchedule[dayId] = getCourseClass(cc, solution, ci);
 			ci += CRITERIAS.length;
 		}
 		return timeTable;
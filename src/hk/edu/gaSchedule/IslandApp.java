@@ -0,0 +1,66 @@
+package hk.edu.gaSchedule;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import hk.edu.gaSchedule.algorithm.Cso;
+import hk.edu.gaSchedule.algorithm.NetworkMigration;
+import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.Schedule;
+
+// Runs one island of island model which exchanges migrants with other processes over TCP
+// Usage: IslandApp <configuration file> <port> [<host:port> of neighbours ...]
+public class IslandApp
+{
+    public static void main(String[] args)
+    {
+    	if (args.length < 2) {
+    		System.out.println("Usage: IslandApp <configuration file> <port> [<host:port> ...]");
+    		return;
+    	}
+
+    	try {
+	        final String FILE_NAME = args[0];
+	        final long startTime = System.currentTimeMillis();
+
+	        Configuration configuration = new Configuration();
+	        File targetFile = new File(FILE_NAME);
+	        if(!targetFile.exists())
+	        	targetFile = new File(System.getProperty("user.dir") + "/" + FILE_NAME);
+	        configuration.parse(targetFile);
+
+	        List<InetSocketAddress> neighbours = new ArrayList<>();
+	        for (int i = 2; i < args.length; ++i)
+	        	neighbours.add(NetworkMigration.parseAddress(args[i]));
+
+	        Schedule prototype = new Schedule(configuration);
+	        Cso<Schedule> alg = new Cso<>(prototype, 2, 2, 80, 3);
+	        try(NetworkMigration<Schedule> migration = new NetworkMigration<>(prototype, Integer.parseInt(args[1]), neighbours, 5))
+	        {
+	        	System.out.println(String.format("Island on port %d sends migrants to %s.", migration.getPort(), neighbours));
+	        	alg.setGenerationListener(migration);
+	        	alg.run(9999, 0.999);
+	        	System.out.println(String.format("\nSent %d, received %d, rejected %d migrants.", migration.getSent(), migration.getReceived(), migration.getRejected()));
+	        }
+
+	        String htmlResult = HtmlOutput.getResult(alg.getResult());
+	        String tempFilePath = new File(System.getProperty("java.io.tmpdir"), targetFile.getName().replace(".json", "-" + args[1] + ".htm")).getPath();
+	        try(BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFilePath))))
+	        {
+	            writer.write(htmlResult);
+	            writer.flush();
+	        }
+
+	        double seconds = (System.currentTimeMillis() - startTime) / 1000.0;
+	        System.out.println(String.format("Best fitness %f, completed in %f secs, result is written to %s", alg.getResult().getFitness(), seconds, tempFilePath));
+    	}
+    	catch(Exception ex) {
+    		ex.printStackTrace();
+    	}
+    }
+}
@@ -39,7 +39,7 @@ public class JsonOutput {
 		for (CourseClass cc : classes.keySet())
 		{
 			// coordinate of time-space slot
-			Reservation reservation = Reservation.getReservation(classes.get(cc));
+			Reservation reservation = solution.getConfiguration().getReservation(classes.get(cc));
 			int day = reservation.getDay() + 1;
 			int time = reservation.getTime() + 1;
 			int room = reservation.getRoom();
@@ -78,7 +78,7 @@ public class JsonOutput {
 			for (int i=0; i< CRITERIAS.length; ++i)
             {
 				sb.append("{");
-				if(solution.getCriteria()[ci + i])
+				if(solution.getCriteria(ci + i))
                 {
 					sb.append("\"Ok\": \"");
 					sb.append(String.format(CRITERIAS_DESCR[i], (i == 1 || i == 2) ? "" : "no ")).append("\"");
@@ -27,6 +27,12 @@ public class APNsgaIII<T extends Chromosome<T> > extends NsgaIII<T>
 		super(prototype, numberOfCrossoverPoints, mutationSize, crossoverProbability, mutationProbability);		
 	}
 	
+	@Override
+	protected boolean isReferenced(T chromosome)
+	{
+		return super.isReferenced(chromosome) || chromosome == _worst;
+	}
+	
 	private double ex(T chromosome)
 	{
 		double numerator = 0.0, denominator = 0.0;
@@ -132,14 +138,16 @@ public class APNsgaIII<T extends Chromosome<T> > extends NsgaIII<T>
 
 				if (bestNotEnhance > (maxRepeat / 50))		
 					reform();
+
+				if (!notifyGeneration(_currentGeneration, pop[cur]))
+					break;
 			}				
 			
 			/******************* crossover *****************/
 			List<T> offspring = crossing(pop[cur]);
 			
 			/******************* mutation *****************/
-			for(T child : offspring)
-				child.mutation(_mutationSize, _mutationProbability);			
+			mutation(offspring);
 
 			pop[cur].addAll(offspring);
 			
@@ -148,6 +156,7 @@ public class APNsgaIII<T extends Chromosome<T> > extends NsgaIII<T>
 			_best = pop[next].get(0).dominates( pop[cur].get(0)) ? pop[next].get(0) : pop[cur].get(0);
 			
 			dualCtrlStrategy(pop[next], bestNotEnhance, nMax);
+			recycle(pop[cur], pop[next]);
 			
 			int temp = cur;
 			cur = next;
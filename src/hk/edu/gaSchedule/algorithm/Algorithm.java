@@ -0,0 +1,33 @@
+package hk.edu.gaSchedule.algorithm;
+
+import java.util.concurrent.ForkJoinPool;
+
+import hk.edu.gaSchedule.model.Chromosome;
+
+// Common operations of algorithms which evolve population of chromosomes
+public interface Algorithm<T extends Chromosome<T> > {
+
+	// Starts and executes algorithm until best chromosome is fitter than minFitness or listener stops it
+	public void run(int maxRepeat, double minFitness);
+
+	// Returns best chromosome found so far
+	public T getResult();
+
+	// Returns listener called at start of each generation, NULL if there is none
+	public GenerationListener<T> getGenerationListener();
+
+	// Sets listener called at start of each generation, NULL removes it
+	public void setGenerationListener(GenerationListener<T> listener);
+
+	// Returns pool of threads which runs parallel work of algorithm, NULL if it has none
+	public default ForkJoinPool getExecutor()
+	{
+		return null;
+	}
+
+	// Sets pool of threads which runs parallel work of algorithm, algorithms which run in calling thread only ignore it
+	public default void setExecutor(ForkJoinPool executor)
+	{
+	}
+
+}
@@ -20,7 +20,7 @@ import hk.edu.gaSchedule.model.Chromosome;
 import hk.edu.gaSchedule.model.Configuration;
 
 /****************** Archive-based Micro Genetic Algorithm(AMGA2) **********************/
-public class Amga2<T extends Chromosome<T> >
+public class Amga2<T extends Chromosome<T> > implements Algorithm<T>
 {
 	// Population of chromosomes
 	private List<T> _archivePopulation, _parentPopulation, _offspringPopulation, _combinedPopulation;
@@ -45,6 +45,9 @@ public class Amga2<T extends Chromosome<T> >
 	// Probability that mutation will occur
 	private float _mutationProbability;
 
+	// Listener called at start of each generation, NULL if there is none
+	private GenerationListener<T> _listener;
+
 	final class DistanceMatrix implements Comparable<DistanceMatrix>
 	{
 		public int index1 = -1;
@@ -99,6 +102,29 @@ public class Amga2<T extends Chromosome<T> >
 		return _combinedPopulation.get(0);
     }
 			
+	public GenerationListener<T> getGenerationListener()
+	{
+		return _listener;
+	}
+
+	public void setGenerationListener(GenerationListener<T> listener)
+	{
+		_listener = listener;
+	}
+
+	// Notifies listener about generation and lets immigrants replace worst chromosomes of archive
+	// Returns FALSE if listener stops algorithm
+	private boolean notifyGeneration(int generation)
+	{
+		if (_listener == null)
+			return true;
+
+		List<T> immigrants = new ArrayList<>();
+		boolean proceed = _listener.onGeneration(generation, getResult(), immigrants);
+		Migration.replaceWorst(_archivePopulation.subList(0, _currentArchiveSize), immigrants, i -> false);
+		return proceed;
+	}
+			
 	protected void initialize()
 	{
 		_archivePopulation = new ArrayList<>();
@@ -527,6 +553,12 @@ public class Amga2<T extends Chromosome<T> >
 
 				if (bestNotEnhance > (maxRepeat / 100))
 					reform();				
+
+				if (!notifyGeneration(currentGeneration))
+				{
+					finalizePopulation();
+					break;
+				}
 			}
 
 			createParentPopulation();
@@ -0,0 +1,348 @@
+package hk.edu.gaSchedule.algorithm;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import hk.edu.gaSchedule.model.Chromosome;
+import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.RandomGenerator;
+
+// Steady-state genetic algorithm whose workers breed and insert offspring without waiting for each other
+// Slots of population are replaced by compare-and-set, best chromosome group is immutable array replaced the same way
+// Every _replaceByGeneration inserted offspring count as one generation
+public class AsyncGeneticAlgorithm<T extends Chromosome<T> > extends GeneticAlgorithm<T>
+{
+	// Number of offspring bred by worker before it gives its thread back to pool
+	private static final int BATCH = 16;
+
+	// Population of chromosomes shared by workers
+	private AtomicReferenceArray<T> _population;
+
+	// Best chromosomes sorted by fitness, they are never replaced in population
+	private final AtomicReference<T[]> _best = new AtomicReference<>();
+
+	// Maximal number of best chromosomes
+	private final int _trackBest;
+
+	// Number of offspring which remain to be inserted in current generation
+	private final AtomicInteger _remaining = new AtomicInteger();
+
+	// Crossover probability used by workers, generation publishes it whenever it changes
+	private volatile float _workerCrossoverProbability;
+
+	// Pool of threads which run workers, NULL if common pool is used
+	private ForkJoinPool _executor;
+
+	private volatile boolean _stopped;
+
+	// First failure of any worker, NULL if there is none
+	private final AtomicReference<Throwable> _error = new AtomicReference<>();
+
+	// State of generation which is accessed only by worker which completes generation, one worker at a time
+	private int _currentGeneration, _bestNotEnhance, _maxRepeat;
+	private double _lastBestFit, _minFitness;
+
+	// Initializes asynchronous genetic algorithm
+	// At least one chromosome is out of best chromosome group, so offspring always have slot to replace
+	protected AsyncGeneticAlgorithm(T prototype, int numberOfChromosomes, int replaceByGeneration, int trackBest)
+	{
+		super(prototype, numberOfChromosomes, replaceByGeneration, trackBest(numberOfChromosomes, trackBest));
+		_trackBest = trackBest(numberOfChromosomes, trackBest);
+	}
+
+	public AsyncGeneticAlgorithm(T prototype, int numberOfCrossoverPoints, int mutationSize, float crossoverProbability, float mutationProbability)
+	{
+		this(prototype, 100, 8, 5);
+		_mutationSize = mutationSize;
+		_numberOfCrossoverPoints = numberOfCrossoverPoints;
+		_crossoverProbability = crossoverProbability;
+		_mutationProbability = mutationProbability;
+	}
+
+	// Returns size of best chromosome group which leaves at least one of chromosomes out of it
+	private static int trackBest(int numberOfChromosomes, int trackBest)
+	{
+		return Math.max(1, Math.min(trackBest, Math.max(2, numberOfChromosomes) - 1));
+	}
+
+	// Each generation needs at least one offspring, otherwise none would ever be completed
+	@Override
+	protected void setReplaceByGeneration(int replaceByGeneration)
+	{
+		super.setReplaceByGeneration(Math.max(1, replaceByGeneration));
+	}
+
+	@SuppressWarnings("unchecked")
+	private T[] newArray(int length)
+	{
+		return (T[]) Array.newInstance(_prototype.getClass(), length);
+	}
+
+	// Returns pointer to best chromosomes found so far
+	@Override
+	public T getResult()
+	{
+		T[] best = _best.get();
+		return best == null ? null : best[0];
+	}
+
+	public ForkJoinPool getExecutor()
+	{
+		return _executor;
+	}
+
+	// Sets pool whose threads run workers, it runs as many workers as it has threads
+	// Workers breed offspring in batches and resubmit themselves, so pool can be shared with other algorithms
+	public void setExecutor(ForkJoinPool executor)
+	{
+		_executor = executor;
+	}
+
+	// Returns best chromosome group, array must not be changed
+	T[] getBest()
+	{
+		return _best.get();
+	}
+
+	// Returns TRUE if chromosome belongs to best chromosome group
+	private boolean isInBest(T chromosome)
+	{
+		for (T best : _best.get()) {
+			if (best == chromosome)
+				return true;
+		}
+		return false;
+	}
+
+	// Tries to add chromosome in best chromosome group before it is inserted into population
+	private void addToBest(T chromosome)
+	{
+		for (; ;) {
+			T[] best = _best.get();
+			int size = best.length;
+
+			// don't add if new chromosome hasn't fitness big enough for best chromosome group
+			if (size == _trackBest && Float.compare(best[size - 1].getFitness(), chromosome.getFitness()) >= 0)
+				return;
+
+			// find place for new chromosome, group is full remove worst chromosome in the group
+			int i = 0;
+			while (i < size && Float.compare(best[i].getFitness(), chromosome.getFitness()) > 0)
+				++i;
+			T[] next = newArray(Math.min(size + 1, _trackBest));
+			System.arraycopy(best, 0, next, 0, i);
+			next[i] = chromosome;
+			System.arraycopy(best, i, next, i + 1, next.length - i - 1);
+			if (_best.compareAndSet(best, next))
+				return;
+		}
+	}
+
+	// Replaces random chromosome out of best chromosome group with offspring
+	private void insert(T offspring)
+	{
+		// chromosome which has joined best group can't be replaced since it becomes visible to other workers
+		addToBest(offspring);
+		for (; ;) {
+			int ci = Configuration.rand(_population.length());
+			T chromosome = _population.get(ci);
+			if (!isInBest(chromosome) && _population.compareAndSet(ci, chromosome, offspring))
+				return;
+		}
+	}
+
+	// Lets immigrants replace worst chromosomes out of best chromosome group if they are fitter
+	@Override
+	protected boolean notifyGeneration(int generation)
+	{
+		if (_listener == null)
+			return true;
+
+		List<T> immigrants = new ArrayList<>();
+		boolean proceed = _listener.onGeneration(generation, getResult(), immigrants);
+		for (T immigrant : immigrants) {
+			if (_population.get(worst()).getFitness() >= immigrant.getFitness())
+				continue;
+
+			// as offspring, immigrant joins best group only once and then it must get into population
+			addToBest(immigrant);
+			for (; ;) {
+				int ci = worst();
+				T chromosome = _population.get(ci);
+				if (!isInBest(chromosome) && _population.compareAndSet(ci, chromosome, immigrant))
+					break;
+			}
+		}
+		return proceed;
+	}
+
+	// Returns slot of worst chromosome out of best chromosome group
+	private int worst()
+	{
+		int worst = -1;
+		T chromosome = null;
+		for (int i = 0; i < _population.length(); ++i) {
+			T c = _population.get(i);
+			if (!isInBest(c) && (chromosome == null || c.getFitness() < chromosome.getFitness())) {
+				worst = i;
+				chromosome = c;
+			}
+		}
+		return worst;
+	}
+
+	// Completes generations, it is called by worker which has inserted last offspring of generation
+	// Counter is reset first, so offspring inserted meanwhile count towards next generation,
+	// and if they fill it as well this worker completes it too
+	private synchronized void generations()
+	{
+		boolean due = true;
+		while (due && !_stopped) {
+			due = _remaining.addAndGet(_replaceByGeneration) <= 0;
+			generation();
+		}
+	}
+
+	// Completes generation
+	private void generation()
+	{
+		T best = getResult();
+		String status = String.format("\rFitness: %f\t Generation: %d", best.getFitness(), _currentGeneration++);
+		System.out.print(status);
+
+		// algorithm has reached criteria?
+		if (best.getFitness() > _minFitness) {
+			_stopped = true;
+			return;
+		}
+
+		double difference = Math.abs(best.getFitness() - _lastBestFit);
+		if (difference <= 0.0000001)
+			++_bestNotEnhance;
+		else {
+			_lastBestFit = best.getFitness();
+			_bestNotEnhance = 0;
+		}
+
+		if (_bestNotEnhance > (_maxRepeat / 100))
+		{
+			setReplaceByGeneration(_replaceByGeneration * 3);
+			_workerCrossoverProbability = ++_crossoverProbability;
+		}
+
+		if (!notifyGeneration(_currentGeneration))
+			_stopped = true;
+	}
+
+	// Breeds batch of offspring unless algorithm is stopped
+	private void breed()
+	{
+		int size = _population.length();
+		for (int i = 0; i < BATCH && !_stopped; ++i) {
+			// selects parent randomly
+			T father = _population.get(Configuration.rand(size));
+			T mother = _population.get(Configuration.rand(size));
+
+			T offspring = father.crossover(mother, _numberOfCrossoverPoints, _workerCrossoverProbability);
+			offspring.mutation(_mutationSize, _mutationProbability);
+			insert(offspring);
+
+			if (_remaining.decrementAndGet() == 0)
+				generations();
+		}
+	}
+
+	// Breeds batch of offspring with generator of worker and resubmits worker until algorithm is stopped
+	private void work(ForkJoinPool executor, RandomGenerator generator, CountDownLatch finished)
+	{
+		try {
+			Configuration.runWith(generator, this::breed);
+		}
+		catch (Throwable ex) {
+			// other workers must not run forever if this one fails
+			_error.compareAndSet(null, ex);
+			_stopped = true;
+		}
+
+		if (!_stopped) {
+			try {
+				executor.execute(() -> work(executor, generator, finished));
+				return;
+			}
+			catch (RejectedExecutionException ex) {
+				_error.compareAndSet(null, ex);
+				_stopped = true;
+			}
+		}
+		finished.countDown();
+	}
+
+	// Starts workers and waits until best chromosome is fitter than minFitness or listener stops algorithm
+	@Override
+	public void run(int maxRepeat, double minFitness)
+	{
+		if (_prototype == null)
+			return;
+
+		_maxRepeat = maxRepeat;
+		_minFitness = minFitness;
+		_currentGeneration = 0;
+		_bestNotEnhance = 0;
+		_lastBestFit = 0.0;
+		_stopped = false;
+		_error.set(null);
+
+		// initialize new population with chromosomes randomly built using prototype
+		_best.set(newArray(0));
+		_population = new AtomicReferenceArray<>(_chromosomes.length);
+		for (int i = 0; i < _chromosomes.length; ++i) {
+			T chromosome = _prototype.makeNewFromPrototype();
+			addToBest(chromosome);
+			_population.set(i, chromosome);
+		}
+		_remaining.set(_replaceByGeneration);
+		_workerCrossoverProbability = _crossoverProbability;
+
+		ForkJoinPool executor = _executor != null ? _executor : ForkJoinPool.commonPool();
+		int workers = executor.getParallelism();
+		CountDownLatch finished = new CountDownLatch(workers);
+		for (int w = 0; w < workers; ++w) {
+			RandomGenerator generator = Configuration.splitGenerator();
+			executor.execute(() -> work(executor, generator, finished));
+		}
+
+		boolean interrupted = false;
+		for (; ;) {
+			try {
+				finished.await();
+				break;
+			}
+			catch (InterruptedException ex) {
+				interrupted = true;
+				_stopped = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+
+		for (int i = 0; i < _chromosomes.length; ++i)
+			_chromosomes[i] = _population.get(i);
+
+		Throwable error = _error.getAndSet(null);
+		if (error != null)
+			throw new IllegalStateException("Worker failed", error);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Asynchronous Steady-State Genetic Algorithm";
+	}
+}
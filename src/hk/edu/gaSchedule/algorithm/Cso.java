@@ -48,7 +48,7 @@ public class Cso<T extends Chromosome<T> > extends NsgaIII<T> {
 			if(i < 1) {
 				_chromlen = positions.size();
 				_current_position = new float[_populationSize][_chromlen];
-				_lf = new LévyFlights<T>(_chromlen, null);
+				_lf = new LévyFlights<T>(_chromlen);
 			}
 		}
 	}
@@ -63,10 +63,20 @@ public class Cso<T extends Chromosome<T> > extends NsgaIII<T> {
 			_pa += .01;
 	}
 
+	private void updatePositions(List<T> population)
+	{
+		float[] gBest = _gBest;
+		updateParticles(_populationSize, i ->
+			_current_position[i] = _lf.updatePosition(population.get(i), _current_position[i], gBest));
+
+		_gBest = new float[_chromlen];
+		globalBest(population, _populationSize).extractPositions(_gBest);
+	}
+
 	private void updateVelocities(List<T> population)
 	{
-		float[][] current_position = _current_position.clone();
-		for (int i = 0; i < _populationSize; ++i) {
+		float[][] current_position = copyOf(_current_position);
+		updateParticles(_populationSize, i -> {
 			boolean changed = false;
 			for(int j = 0; j < _chromlen; ++j) {
 				double r = Configuration.random();
@@ -82,19 +92,19 @@ public class Cso<T extends Chromosome<T> > extends NsgaIII<T> {
 			}
 			if(changed)
 				_current_position[i] = _lf.optimum(_current_position[i], population.get(i));
-		}
+		});
 	}
 
 	@Override
 	protected List<T> replacement(List<T> population)
 	{
-		_gBest = _lf.updatePositions(population, _populationSize, _current_position, _gBest);
+		updatePositions(population);
 		updateVelocities(population);
 		
 		for (int i = 0; i < _populationSize; ++i) {
 			T chromosome = _prototype.makeEmptyFromPrototype(null);
 			chromosome.updatePositions(_current_position[i]);
-			population.set(i, chromosome);
+			recycle(population.set(i, chromosome));
 		}
 
 		return super.replacement(population);
@@ -137,20 +147,23 @@ public class Cso<T extends Chromosome<T> > extends NsgaIII<T> {
 
 				if (bestNotEnhance > (maxRepeat / 100))
 					reform();
+
+				if (!notifyGeneration(currentGeneration, pop[cur]))
+					break;
 			}
 
 			/******************* crossover *****************/
 			List<T> offspring = crossing(pop[cur]);
 
 			/******************* mutation *****************/
-			for(T child : offspring)
-				child.mutation(_mutationSize, _mutationProbability);
+			mutation(offspring);
 
 			pop[cur].addAll(offspring);
 			
 			/******************* replacement *****************/	
 			pop[next] = replacement(pop[cur]);
 			_best = pop[next].get(0).dominates( pop[cur].get(0)) ? pop[next].get(0) : pop[cur].get(0);
+			recycle(pop[cur], pop[next]);
 
 			int temp = cur;
 			cur = next;
@@ -57,7 +57,7 @@ public class Dlba<T extends Chromosome<T> > extends NsgaIII<T> {
 				_rate = new double[_populationSize];
 				_loudness = new double[_populationSize];
 				_position = new float[_populationSize][_chromlen];
-				_lf = new LévyFlights<T>(_chromlen, null);
+				_lf = new LévyFlights<T>(_chromlen);
 			}
 			
 			_rate[i] = (float) Configuration.random();
@@ -79,11 +79,14 @@ public class Dlba<T extends Chromosome<T> > extends NsgaIII<T> {
 	{
 		double mean = Arrays.stream(_loudness).average().orElse(0.0);
 		if(_gBest == null)
-			_gBest = _position[0];
+			_gBest = _position[0].clone();
 		T prevBest = _prototype.makeEmptyFromPrototype(null);
 		prevBest.updatePositions(_gBest);
 
-		for (int i = 0; i < _populationSize; ++i) {
+		// bats read positions of others and global best as they were before this step
+		float[][] position = copyOf(_position);
+		float[] gBest = _gBest;
+		updateParticles(_populationSize, i -> {
 			float beta = (float) Configuration.random();
 			double rand = Configuration.random();
 			double 𝛽1 = Configuration.rand(-1.0, 1.0);
@@ -102,36 +105,42 @@ public class Dlba<T extends Chromosome<T> > extends NsgaIII<T> {
 			for(int j = 0; j < dim; ++j) {
 				float f1 = ((_minValue - _maxValues.get(j)) * _currentGeneration / (float) 𝛽1 + _maxValues.get(j)) * beta;
 				float f2 = ((_maxValues.get(j) - _minValue) * _currentGeneration / (float) 𝛽2 + _minValue) * beta;
-				_position[i][j] = _gBest[j] + f1 * (_position[r1][j] - _position[r2][j]) + f2 * (_position[r3][j] - _position[r3][j]);
+				_position[i][j] = gBest[j] + f1 * (position[r1][j] - position[r2][j]) + f2 * (position[r3][j] - position[r3][j]);
 				
 				if (rand > _rate[i]) {
 					double 𝜀 = Configuration.rand(-1.0, 1.0);
-					_position[i][j] += (float) (_gBest[j] + 𝜀 * mean);
+					_position[i][j] += (float) (gBest[j] + 𝜀 * mean);
 				}
 			}
 
-			_gBest = _lf.updatePosition(population.get(i), _position, i, _gBest);
-		}
+			_position[i] = _lf.updatePosition(population.get(i), _position[i], gBest);
+		});
+
+		_gBest = new float[_chromlen];
+		globalBest(population, _populationSize).extractPositions(_gBest);
 
 		T globalBest = _prototype.makeEmptyFromPrototype(null);
 		globalBest.updatePositions(_gBest);
-		mean = Arrays.stream(_rate).average().orElse(0.0);
-		for (int i = 0; i < _populationSize; ++i) {
+		boolean enhanced = prevBest.dominates(globalBest);
+		double meanRate = Arrays.stream(_rate).average().orElse(0.0);
+		updateParticles(_populationSize, i -> {
 			double rand = Configuration.random();
 			if (rand < _loudness[i]) {
 				double 𝜂 = Configuration.rand(-1.0, 1.0);
 				int dim = _position[i].length;
 				for(int j = 0; j < dim; ++j)
-					_position[i][j] = (float) (_gBest[j] + 𝜂 * mean);
+					_position[i][j] = (float) (_gBest[j] + 𝜂 * meanRate);
 				
-				if (prevBest.dominates(globalBest)) {
+				if (enhanced) {
 					_rate[i] *= (float) Math.pow(_currentGeneration / 𝜂, 3);
 					_loudness[i] *= _alpha;
 				}
 			}
 			
 			_position[i] = _lf.optimum(_position[i], population.get(i));
-		}
+		});
+		recycle(prevBest);
+		recycle(globalBest);
 	}
 	
 	@Override
@@ -142,7 +151,7 @@ public class Dlba<T extends Chromosome<T> > extends NsgaIII<T> {
 		for (int i = 0; i < _populationSize; ++i) {
 			T chromosome = _prototype.makeEmptyFromPrototype(null);
 			chromosome.updatePositions(_position[i]);
-			population.set(i, chromosome);
+			recycle(population.set(i, chromosome));
 		}
 
 		return super.replacement(population);
@@ -185,20 +194,23 @@ public class Dlba<T extends Chromosome<T> > extends NsgaIII<T> {
 
 				if (bestNotEnhance > (maxRepeat / 100))
 					reform();
+
+				if (!notifyGeneration(_currentGeneration, pop[cur]))
+					break;
 			}
 
 			/******************* crossover *****************/
 			List<T> offspring = crossing(pop[cur]);
 			
 			/******************* mutation *****************/
-			for(T child : offspring)
-				child.mutation(_mutationSize, _mutationProbability);
+			mutation(offspring);
 
 			pop[cur].addAll(offspring);
 
 			/******************* replacement *****************/	
 			pop[next] = replacement(pop[cur]);
 			_best = pop[next].get(0).dominates( pop[cur].get(0)) ? pop[next].get(0) : pop[cur].get(0);
+			recycle(pop[cur], pop[next]);
 
 			int temp = cur;
 			cur = next;
@@ -47,7 +47,7 @@ public class Fpa<T extends Chromosome<T> > extends NsgaIII<T> {
 			if(i < 1) {
 				_chromlen = positions.size();
 				_current_position = new float[_populationSize][_chromlen];
-				_lf = new LévyFlights<T>(_chromlen, null);
+				_lf = new LévyFlights<T>(_chromlen);
 			}
 		}
 	}
@@ -64,11 +64,12 @@ public class Fpa<T extends Chromosome<T> > extends NsgaIII<T> {
 
 	private void updatePositions(List<T> population)
 	{
-		float[][] current_position = _current_position.clone();
-		for (int i = 0; i < _populationSize; ++i) {
+		float[][] current_position = copyOf(_current_position);
+		float[] gBest = _gBest;
+		updateParticles(_populationSize, i -> {
 			double r = Configuration.random();
 			if(r < _pa)
-				_gBest = _lf.updatePosition(population.get(i), _current_position, i, _gBest);
+				_current_position[i] = _lf.updatePosition(population.get(i), _current_position[i], gBest);
 			else {
 				int d1 = Configuration.rand(_populationSize);
 				int d2;
@@ -81,7 +82,10 @@ public class Fpa<T extends Chromosome<T> > extends NsgaIII<T> {
 			
 				_current_position[i] = _lf.optimum(_current_position[i], population.get(i));
 			}
-		}
+		});
+
+		_gBest = new float[_chromlen];
+		globalBest(population, _populationSize).extractPositions(_gBest);
 	}
 
 	@Override
@@ -92,7 +96,7 @@ public class Fpa<T extends Chromosome<T> > extends NsgaIII<T> {
 		for (int i = 0; i < _populationSize; ++i) {
 			T chromosome = _prototype.makeEmptyFromPrototype(null);
 			chromosome.updatePositions(_current_position[i]);
-			population.set(i, chromosome);
+			recycle(population.set(i, chromosome));
 		}
 
 		return super.replacement(population);
@@ -135,20 +139,23 @@ public class Fpa<T extends Chromosome<T> > extends NsgaIII<T> {
 
 				if (bestNotEnhance > (maxRepeat / 100))
 					reform();
+
+				if (!notifyGeneration(currentGeneration, pop[cur]))
+					break;
 			}
 
 			/******************* crossover *****************/
 			List<T> offspring = crossing(pop[cur]);
 
 			/******************* mutation *****************/
-			for(T child : offspring)
-				child.mutation(_mutationSize, _mutationProbability);
+			mutation(offspring);
 
 			pop[cur].addAll(offspring);
 			
 			/******************* replacement *****************/	
 			pop[next] = replacement(pop[cur]);
 			_best = pop[next].get(0).dominates( pop[cur].get(0)) ? pop[next].get(0) : pop[cur].get(0);
+			recycle(pop[cur], pop[next]);
 
 			int temp = cur;
 			cur = next;
@@ -8,7 +8,6 @@ package hk.edu.gaSchedule.algorithm;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import hk.edu.gaSchedule.model.Chromosome;
 import hk.edu.gaSchedule.model.Configuration;
@@ -24,8 +23,6 @@ public class GaQpso<T extends Chromosome<T> > extends NsgaIII<T> {
 
 	private static final double _alpha0 = .5, _alpha1 = .96;
 
-	private static Random _random = new Random(System.currentTimeMillis());
-
 	// Initializes GAQPSO
 	public GaQpso(T prototype, int numberOfCrossoverPoints, int mutationSize, float crossoverProbability, float mutationProbability)
 	{
@@ -55,7 +52,9 @@ public class GaQpso<T extends Chromosome<T> > extends NsgaIII<T> {
 		T localBest = _prototype.makeEmptyFromPrototype(null);
 		localBest.updatePositions(localVal);
 		
-		if(localBest.dominates(chromosome)) {
+		boolean better = localBest.dominates(chromosome);
+		recycle(localBest);
+		if(better) {
 			chromosome.updatePositions(localVal);
 			return localVal;
 		}
@@ -67,43 +66,50 @@ public class GaQpso<T extends Chromosome<T> > extends NsgaIII<T> {
 	
 	private static double gaussian(double x, float sigma)
 	{
-		return _random.nextGaussian() * sigma + x;
+		return Configuration.gaussian() * sigma + x;
 	}
 
 	private void updatePosition(List<T> population)
 	{
-		float[] mBest = new float[_chromlen];
-		float[][] currentPosition = _current_position.clone();
-		for(int i = 0; i < _populationSize; ++i) {
+		float[] gBest = _gBest;
+		updateParticles(_populationSize, i -> {
 			float fitness = population.get(i).getFitness();
 			if(fitness > _pBestScore[i]) {
 				_pBestScore[i] = fitness;
 				population.get(i).extractPositions(_current_position[i]);
 				_pBestPosition[i] = _current_position[i].clone();
 			}
-			_gBest = optimum(_gBest, population.get(i));
-			
+			// dominated chromosome takes global best, copy is given to it since it rewrites positions it takes
+			optimum(gBest.clone(), population.get(i));
+		});
+
+		_gBest = new float[_chromlen];
+		globalBest(population, _populationSize).extractPositions(_gBest);
+
+		float[] mBest = new float[_chromlen];
+		for(int i = 0; i < _populationSize; ++i) {
 			for(int j = 0; j < _chromlen; ++j)
 				mBest[j] += _pBestPosition[i][j] / _populationSize;
 		}
 
+		float[][] currentPosition = _current_position.clone();
 		double alpha = _alpha0 + (_max_iterations - _currentGeneration) * (_alpha1 - _alpha0) / _max_iterations;
-		for(int i = 0; i < _populationSize; ++i) {
+		updateParticles(_populationSize, i -> {
 			for(int j = 0; j < _chromlen; ++j) {
-				double phi = _random.nextDouble();
-				double u = _random.nextDouble();
+				double phi = Configuration.random();
+				double u = Configuration.random();
 				double p = phi * _pBestPosition[i][j] + (1 - phi) * _gBest[j];
 				double np = gaussian(p, mBest[j] - _pBestPosition[i][j]);
 				double NP = (Configuration.rand(100) < _mutationProbability) ? p : np; 
 				
-				if(_random.nextDouble() > .5)
+				if(Configuration.random() > .5)
 					_current_position[i][j] += (float) (NP + alpha * Math.abs(mBest[j] - currentPosition[i][j]) * Math.log(1.0 / u));
 				else
 					_current_position[i][j] += (float) (NP - alpha * Math.abs(mBest[j] - currentPosition[i][j]) * Math.log(1.0 / u));
 			}
 
 			_current_position[i] = optimum(_current_position[i], population.get(i));
-		}
+		});
 	}
 
 	@Override
@@ -114,7 +120,7 @@ public class GaQpso<T extends Chromosome<T> > extends NsgaIII<T> {
 		for (int i = 0; i < _populationSize; ++i) {
 			T chromosome = _prototype.makeEmptyFromPrototype(null);
 			chromosome.updatePositions(_current_position[i]);
-			population.set(i, chromosome);
+			recycle(population.set(i, chromosome));
 		}
 
 		return super.replacement(population);
@@ -157,20 +163,23 @@ public class GaQpso<T extends Chromosome<T> > extends NsgaIII<T> {
 
 				if (bestNotEnhance > (maxRepeat / 100))
 					reform();
+
+				if (!notifyGeneration(_currentGeneration, pop[cur]))
+					break;
 			}			
 			
 			/******************* crossover *****************/
 			List<T> offspring = crossing(pop[cur]);
 			
 			/******************* mutation *****************/
-			for(T child : offspring)
-				child.mutation(_mutationSize, _mutationProbability);
+			mutation(offspring);
 			
 			pop[cur].addAll(offspring);
 			
 			/******************* replacement *****************/	
 			pop[next] = replacement(pop[cur]);
 			_best = pop[next].get(0).dominates( pop[cur].get(0)) ? pop[next].get(0) : pop[cur].get(0);
+			recycle(pop[cur], pop[next]);
 			
 			int temp = cur;
 			cur = next;
@@ -0,0 +1,15 @@
+package hk.edu.gaSchedule.algorithm;
+
+import java.util.List;
+
+import hk.edu.gaSchedule.model.Chromosome;
+
+// Receives control at start of each generation of algorithm, in thread which runs algorithm
+public interface GenerationListener<T extends Chromosome<T> > {
+
+	// Called with best chromosome found so far, which must not be changed
+	// Chromosomes added to immigrants replace worst chromosomes of population if they are fitter
+	// Returns FALSE to stop algorithm
+	public boolean onGeneration(int generation, T best, List<T> immigrants);
+
+}
@@ -7,12 +7,15 @@ package hk.edu.gaSchedule.algorithm;
  */
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import hk.edu.gaSchedule.model.Chromosome;
 import hk.edu.gaSchedule.model.Configuration;
 
 // Genetic algorithm
-public class GeneticAlgorithm<T extends Chromosome<T> >
+public class GeneticAlgorithm<T extends Chromosome<T> > implements Algorithm<T>
 {
 	// Population of chromosomes
 	protected T[] _chromosomes;
@@ -44,6 +47,9 @@ public class GeneticAlgorithm<T extends Chromosome<T> >
 	// Probability that mutation will occurr
 	protected float _mutationProbability;	
 
+	// Listener called at start of each generation, NULL if there is none
+	protected GenerationListener<T> _listener;
+
 	// Initializes genetic algorithm
 	protected GeneticAlgorithm(T prototype, int numberOfChromosomes, int replaceByGeneration, int trackBest)
     {
@@ -143,6 +149,30 @@ public class GeneticAlgorithm<T extends Chromosome<T> >
 		_currentBestSize = 0;
 	}
 	
+	public GenerationListener<T> getGenerationListener()
+	{
+		return _listener;
+	}
+
+	public void setGenerationListener(GenerationListener<T> listener)
+	{
+		_listener = listener;
+	}
+
+	// Notifies listener about generation and lets immigrants replace worst chromosomes out of best chromosome group
+	// Returns FALSE if listener stops algorithm
+	protected boolean notifyGeneration(int generation)
+	{
+		if (_listener == null)
+			return true;
+
+		List<T> immigrants = new ArrayList<>();
+		boolean proceed = _listener.onGeneration(generation, getResult(), immigrants);
+		for (int ci : Migration.replaceWorst(Arrays.asList(_chromosomes), immigrants, this::isInBest))
+			addToBest(ci);
+		return proceed;
+	}
+	
 	protected void initialize(T[] population)
 	{
 		// initialize new population with chromosomes randomly built using prototype
@@ -229,6 +259,9 @@ public class GeneticAlgorithm<T extends Chromosome<T> >
 				++_crossoverProbability;
 			}			
 
+			if (!notifyGeneration(currentGeneration))
+				break;
+
 			replacement(_chromosomes);
 		}
 	}
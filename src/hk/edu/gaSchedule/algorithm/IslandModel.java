@@ -0,0 +1,210 @@
+package hk.edu.gaSchedule.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import hk.edu.gaSchedule.model.Chromosome;
+import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.RandomGenerator;
+
+// Runs independent populations of algorithms on separate threads
+// Every few generations each island sends copy of its best chromosome to its neighbours
+public class IslandModel<T extends Chromosome<T> > implements Algorithm<T>
+{
+	// Islands which receive migrants from each island
+	public enum Topology
+	{
+		// next island, last island sends to first one
+		RING,
+		// all other islands
+		FULLY_CONNECTED,
+		// another island chosen randomly each time
+		RANDOM
+	}
+
+	// Algorithms which evolve populations of islands
+	private final List<Algorithm<T> > _islands;
+
+	// Number of generations between two migrations
+	private final int _migrationInterval;
+
+	private final Topology _topology;
+
+	// Latest migrant sent by each island to each island which hasn't arrived yet, indexed by receiver * islands + sender
+	private AtomicReferenceArray<T> _inbox;
+
+	// Indicates that islands should stop at start of next generation
+	private volatile boolean _stopped;
+
+	// Listener called at start of each generation of any island, NULL if there is none
+	private GenerationListener<T> _listener;
+
+	// Initializes model with algorithms of islands, they must not be shared with other models
+	public IslandModel(List<? extends Algorithm<T> > islands, int migrationInterval, Topology topology)
+	{
+		_islands = new ArrayList<>(islands);
+		_migrationInterval = Math.max(1, migrationInterval);
+		_topology = topology;
+	}
+
+	public List<Algorithm<T> > getIslands()
+	{
+		return _islands;
+	}
+
+	public int getMigrationInterval()
+	{
+		return _migrationInterval;
+	}
+
+	public Topology getTopology()
+	{
+		return _topology;
+	}
+
+	public GenerationListener<T> getGenerationListener()
+	{
+		return _listener;
+	}
+
+	// Sets listener called by threads of islands one at a time, it receives generation and best chromosome of calling island
+	// Its immigrants are placed into population of that island and stopping it stops all islands
+	public void setGenerationListener(GenerationListener<T> listener)
+	{
+		_listener = listener;
+	}
+
+	// Returns fittest of best chromosomes of islands
+	public T getResult()
+	{
+		T result = null;
+		for (Algorithm<T> island : _islands) {
+			T best = island.getResult();
+			if (best != null && (result == null || best.getFitness() > result.getFitness()))
+				result = best;
+		}
+		return result;
+	}
+
+	// Returns islands which receive migrants from specified island
+	private int[] destinations(int island)
+	{
+		int n = _islands.size();
+		if (n < 2)
+			return new int[0];
+
+		switch (_topology) {
+		case RING:
+			return new int[] { (island + 1) % n };
+		case FULLY_CONNECTED:
+			int[] destinations = new int[n - 1];
+			for (int i = 0, j = 0; i < n; ++i) {
+				if (i != island)
+					destinations[j++] = i;
+			}
+			return destinations;
+		default:
+			return new int[] { (island + 1 + Configuration.rand(n - 1)) % n };
+		}
+	}
+
+	// Receives migrants sent to island and sends its best chromosome when migration is due
+	// Returns FALSE if islands should stop
+	private boolean migrate(int island, int generation, T best, List<T> immigrants)
+	{
+		if (_stopped)
+			return false;
+
+		int n = _islands.size();
+		for (int sender = 0; sender < n; ++sender) {
+			T migrant = _inbox.getAndSet(island * n + sender, null);
+			if (migrant != null)
+				immigrants.add(migrant);
+		}
+
+		// each receiver gets its own copy as it becomes member of its population
+		if (generation % _migrationInterval == 0) {
+			for (int receiver : destinations(island))
+				_inbox.set(receiver * n + island, best.clone());
+		}
+
+		GenerationListener<T> listener = _listener;
+		if (listener != null) {
+			synchronized (this) {
+				if (!listener.onGeneration(generation, best, immigrants))
+					_stopped = true;
+			}
+		}
+		return !_stopped;
+	}
+
+	// Starts islands and waits until one of them finds chromosome fitter than minFitness or all of them finish
+	public void run(int maxRepeat, double minFitness)
+	{
+		int n = _islands.size();
+		_inbox = new AtomicReferenceArray<>(n * n);
+		List<GenerationListener<T> > listeners = new ArrayList<>(n);
+		for (Algorithm<T> algorithm : _islands)
+			listeners.add(algorithm.getGenerationListener());
+		_stopped = false;
+
+		// streams are split in calling thread, so island evolves the same way for the same seed
+		// until it receives migrants, their arrival depends on timing of threads
+		RandomGenerator[] generators = new RandomGenerator[n];
+		for (int i = 0; i < n; ++i)
+			generators[i] = Configuration.splitGenerator();
+
+		Thread[] threads = new Thread[n];
+		Throwable[] errors = new Throwable[n];
+		for (int i = 0; i < n; ++i) {
+			final int island = i;
+			Algorithm<T> algorithm = _islands.get(i);
+			algorithm.setGenerationListener((generation, best, immigrants) -> migrate(island, generation, best, immigrants));
+			threads[i] = new Thread(() -> {
+				try {
+					Configuration.runWith(generators[island], () -> algorithm.run(maxRepeat, minFitness));
+					T best = algorithm.getResult();
+					if (best != null && best.getFitness() > minFitness)
+						_stopped = true;
+				}
+				catch (Throwable ex) {
+					errors[island] = ex;
+					_stopped = true;
+				}
+			}, "Island " + i);
+			threads[i].start();
+		}
+
+		boolean interrupted = false;
+		for (int i = 0; i < n; ++i) {
+			for (; ;) {
+				try {
+					threads[i].join();
+					break;
+				}
+				catch (InterruptedException ex) {
+					interrupted = true;
+					_stopped = true;
+				}
+			}
+		}
+
+		for (int i = 0; i < n; ++i)
+			_islands.get(i).setGenerationListener(listeners.get(i));
+		_inbox = null;
+		if (interrupted)
+			Thread.currentThread().interrupt();
+
+		for (Throwable error : errors) {
+			if (error != null)
+				throw new IllegalStateException("Island failed", error);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("Island Model (%d islands, %s)", _islands.size(), _topology);
+	}
+}
@@ -1,21 +1,16 @@
 package hk.edu.gaSchedule.algorithm;
 
-import java.util.List;
-import java.util.Random;
-
 import hk.edu.gaSchedule.model.Chromosome;
+import hk.edu.gaSchedule.model.Configuration;
 
 final class LévyFlights<T extends Chromosome<T> > {
 
 	private int _chromlen;
 	private double _beta, _σu, _σv;	
 	
-	private static Random _random = null;
-	
-	LévyFlights(int chromlen, Random random)
+	LévyFlights(int chromlen)
 	{
 		_chromlen = chromlen;
-		_random = random != null ? random : new Random(System.currentTimeMillis());		
 		
 		_beta = 1.5;		
 		double num = gamma(1 + _beta) * Math.sin(Math.PI * _beta / 2);
@@ -48,7 +43,9 @@ final class LévyFlights<T extends Chromosome<T> > {
 		T localBest = chromosome.makeEmptyFromPrototype(null);
 		localBest.updatePositions(localVal);
 		
-		if(localBest.dominates(chromosome)) {
+		boolean better = localBest.dominates(chromosome);
+		localBest.recycle();
+		if(better) {
 			chromosome.updatePositions(localVal);
 			return localVal;
 		}
@@ -58,32 +55,25 @@ final class LévyFlights<T extends Chromosome<T> > {
 		return positions;
 	}
 	
-	float[] updatePosition(T chromosome, float[][] currentPosition, int i, float[] gBest)
+	// Moves particle towards global best of previous step and returns its new position
+	// Particle owns its position and chromosome, so particles can be moved by different threads
+	float[] updatePosition(T chromosome, float[] position, float[] gBest)
 	{
-		float[] curPos = currentPosition[i].clone();
-		double u = _random.nextGaussian() * _σu;
-		double v = _random.nextGaussian() * _σv;
+		float[] curPos = position.clone();
+		double u = Configuration.gaussian() * _σu;
+		double v = Configuration.gaussian() * _σv;
 		double S = u / Math.pow(Math.abs(v), 1 / _beta);
 		
 		if(gBest == null) {
 			gBest = new float[_chromlen];
 			chromosome.extractPositions(gBest);
 		}
-		else
-			gBest = optimum(gBest, chromosome);
+		else // chromosome normalizes positions which it takes, so particle gets its own copy of shared global best
+			gBest = optimum(gBest.clone(), chromosome);
 
 		for(int j = 0; j < _chromlen; ++j)
-			currentPosition[i][j] += (float) (_random.nextGaussian() * 0.01 * S * (curPos[j] - gBest[j]));
-
-		currentPosition[i] = optimum(currentPosition[i], chromosome);
-		return gBest;
-	}
-	
-	float[] updatePositions(List<T> population, int populationSize, float[][] currentPosition, float[] gBest)
-	{
-		for(int i = 0; i < populationSize; ++i)
-			gBest = updatePosition(population.get(i), currentPosition, i, gBest);
+			position[j] += (float) (Configuration.gaussian() * 0.01 * S * (curPos[j] - gBest[j]));
 
-		return gBest;
+		return optimum(position, chromosome);
 	}
 }
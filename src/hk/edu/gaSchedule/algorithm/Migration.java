@@ -0,0 +1,50 @@
+package hk.edu.gaSchedule.algorithm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import hk.edu.gaSchedule.model.Chromosome;
+
+// Places immigrants into population of algorithm
+final class Migration
+{
+	private Migration()
+	{
+	}
+
+	// Replaces worst chromosomes of population with immigrants which are fitter than them
+	// Chromosomes at protected indices are kept, returns indices of replaced chromosomes
+	static <T extends Chromosome<T> > int[] replaceWorst(List<T> population, List<T> immigrants, IntPredicate isProtected)
+	{
+		int[] replaced = new int[immigrants.size()];
+		int size = 0;
+		for (T immigrant : immigrants)
+		{
+			int worst = -1;
+			for (int i = 0; i < population.size(); ++i)
+			{
+				if (isProtected.test(i) || contains(replaced, size, i))
+					continue;
+				if (worst < 0 || population.get(i).getFitness() < population.get(worst).getFitness())
+					worst = i;
+			}
+
+			if (worst < 0 || population.get(worst).getFitness() >= immigrant.getFitness())
+				continue;
+			population.set(worst, immigrant);
+			replaced[size++] = worst;
+		}
+		return Arrays.copyOf(replaced, size);
+	}
+
+	private static boolean contains(int[] indices, int size, int index)
+	{
+		for (int i = 0; i < size; ++i)
+		{
+			if (indices[i] == index)
+				return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,328 @@
+package hk.edu.gaSchedule.algorithm;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import hk.edu.gaSchedule.model.Chromosome;
+
+// Exchanges migrants between islands which run in separate processes over TCP sockets
+// Each connection starts with header of three ints: MAGIC, number of genes and number of objectives,
+// receiver closes connection and counts it as rejected if they don't match its own chromosomes
+// Then each migrant is sent as its genome, time-space slot of each class as int, followed by its objectives as doubles
+// Receiver rebuilds migrant from genome and drops it if recalculated objectives differ from received ones
+public class NetworkMigration<T extends Chromosome<T> > implements GenerationListener<T>, Closeable
+{
+	public static final int MAGIC = 0x47414D31;
+
+	// Timeout of connecting to neighbour in milliseconds
+	private static final int CONNECT_TIMEOUT = 2000;
+
+	// Time in milliseconds for which accepting connections is paused after it fails
+	private static final int ACCEPT_BACKOFF = 100;
+
+	// Genome and objectives of chromosome as they are sent over socket
+	private static final class Migrant
+	{
+		final int[] genome;
+		final double[] objectives;
+
+		Migrant(int[] genome, double[] objectives)
+		{
+			this.genome = genome;
+			this.objectives = objectives;
+		}
+	}
+
+	// Chromosome from which migrants are made
+	private final T _prototype;
+
+	private final int _numberOfGenes, _numberOfObjectives;
+
+	// Number of generations between two migrations
+	private final int _migrationInterval;
+
+	// Islands which receive migrants of this one
+	private final List<SocketAddress> _neighbours;
+
+	private final ServerSocket _server;
+
+	// Migrants which arrived but weren't taken by algorithm yet and migrants waiting to be sent, oldest are dropped if full
+	private final BlockingQueue<Migrant> _inbox, _outbox;
+
+	// Connections to neighbours, NULL if they are not connected
+	private final Socket[] _sockets;
+	private final DataOutputStream[] _outputs;
+
+	private final List<Socket> _accepted = new ArrayList<>();
+
+	private final List<Thread> _threads = new ArrayList<>();
+
+	private volatile boolean _closed;
+
+	private final AtomicLong _sent = new AtomicLong(), _received = new AtomicLong(), _rejected = new AtomicLong();
+
+	// Initializes island which listens on port, 0 picks free port, and sends migrants to neighbours
+	// Prototype must be able to make chromosomes from genome of same length as genome of migrants
+	public NetworkMigration(T prototype, int port, List<? extends SocketAddress> neighbours, int migrationInterval, int capacity) throws IOException
+	{
+		_prototype = prototype;
+		_numberOfGenes = prototype.getConfiguration().getNumberOfCourseClasses();
+		_numberOfObjectives = prototype.getObjectives().length;
+		_migrationInterval = Math.max(1, migrationInterval);
+		_neighbours = new ArrayList<>(neighbours);
+		_inbox = new ArrayBlockingQueue<>(Math.max(1, capacity));
+		_outbox = new ArrayBlockingQueue<>(Math.max(1, capacity));
+		_sockets = new Socket[_neighbours.size()];
+		_outputs = new DataOutputStream[_neighbours.size()];
+
+		_server = new ServerSocket(port);
+		start("Migration acceptor", this::accept);
+		start("Migration sender", this::send);
+	}
+
+	public NetworkMigration(T prototype, int port, List<? extends SocketAddress> neighbours, int migrationInterval) throws IOException
+	{
+		this(prototype, port, neighbours, migrationInterval, 4 * Math.max(1, neighbours.size()));
+	}
+
+	// Returns port on which island receives migrants
+	public int getPort()
+	{
+		return _server.getLocalPort();
+	}
+
+	public long getSent()
+	{
+		return _sent.get();
+	}
+
+	public long getReceived()
+	{
+		return _received.get();
+	}
+
+	// Returns number of received migrants which weren't valid chromosomes of this island
+	// and connections whose header didn't match chromosomes of this island
+	public long getRejected()
+	{
+		return _rejected.get();
+	}
+
+	private void start(String name, Runnable task)
+	{
+		Thread thread = new Thread(task, name);
+		thread.setDaemon(true);
+		synchronized (_threads) {
+			_threads.add(thread);
+		}
+		thread.start();
+	}
+
+	// Adds item to queue, drops oldest item if queue is full
+	private static void offer(BlockingQueue<Migrant> queue, Migrant migrant)
+	{
+		while (!queue.offer(migrant))
+			queue.poll();
+	}
+
+	// Takes migrants which arrived and queues best chromosome for neighbours when migration is due
+	public boolean onGeneration(int generation, T best, List<T> immigrants)
+	{
+		for (Migrant migrant; (migrant = _inbox.poll()) != null; ) {
+			try {
+				T chromosome = _prototype.makeNewFromGenome(migrant.genome, 0);
+				if (Arrays.equals(chromosome.getObjectives(), migrant.objectives))
+					immigrants.add(chromosome);
+				else
+					_rejected.incrementAndGet();
+			}
+			catch (IllegalArgumentException ex) {
+				_rejected.incrementAndGet();
+			}
+		}
+
+		if (!_neighbours.isEmpty() && generation % _migrationInterval == 0) {
+			int[] genome = new int[_numberOfGenes];
+			best.extractGenome(genome, 0);
+			offer(_outbox, new Migrant(genome, best.getObjectives().clone()));
+		}
+		return true;
+	}
+
+	private void accept()
+	{
+		while (!_closed) {
+			try {
+				Socket socket = _server.accept();
+				synchronized (_accepted) {
+					_accepted.add(socket);
+				}
+				start("Migration receiver " + socket.getRemoteSocketAddress(), () -> receive(socket));
+			}
+			catch (IOException ex) {
+				if (_closed)
+					break;
+
+				// e.g. too many open files, retrying at once would only spin
+				try {
+					Thread.sleep(ACCEPT_BACKOFF);
+				}
+				catch (InterruptedException ie) {
+					break;
+				}
+			}
+		}
+	}
+
+	private void receive(Socket socket)
+	{
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+			if (input.readInt() != MAGIC || input.readInt() != _numberOfGenes || input.readInt() != _numberOfObjectives) {
+				_rejected.incrementAndGet();
+				return;
+			}
+
+			for (; ;) {
+				int[] genome = new int[_numberOfGenes];
+				for (int i = 0; i < genome.length; ++i)
+					genome[i] = input.readInt();
+				double[] objectives = new double[_numberOfObjectives];
+				for (int i = 0; i < objectives.length; ++i)
+					objectives[i] = input.readDouble();
+
+				offer(_inbox, new Migrant(genome, objectives));
+				_received.incrementAndGet();
+			}
+		}
+		catch (IOException ex) {
+			// sender closed connection
+		}
+		finally {
+			synchronized (_accepted) {
+				_accepted.remove(socket);
+			}
+		}
+	}
+
+	private void send()
+	{
+		while (!_closed) {
+			Migrant migrant;
+			try {
+				migrant = _outbox.poll(100, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException ex) {
+				break;
+			}
+			if (migrant == null)
+				continue;
+
+			for (int n = 0; n < _neighbours.size(); ++n) {
+				try {
+					DataOutputStream output = connect(n);
+					for (int gene : migrant.genome)
+						output.writeInt(gene);
+					for (double objective : migrant.objectives)
+						output.writeDouble(objective);
+					output.flush();
+					_sent.incrementAndGet();
+				}
+				catch (IOException ex) {
+					// neighbour is not running, try again with next migrant
+					disconnect(n);
+				}
+			}
+		}
+
+		for (int n = 0; n < _neighbours.size(); ++n)
+			disconnect(n);
+	}
+
+	// Returns stream to neighbour, opens connection and writes header if it is not connected
+	private DataOutputStream connect(int neighbour) throws IOException
+	{
+		if (_outputs[neighbour] == null) {
+			Socket socket = new Socket();
+			try {
+				socket.setTcpNoDelay(true);
+				socket.connect(_neighbours.get(neighbour), CONNECT_TIMEOUT);
+				DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				output.writeInt(MAGIC);
+				output.writeInt(_numberOfGenes);
+				output.writeInt(_numberOfObjectives);
+				_sockets[neighbour] = socket;
+				_outputs[neighbour] = output;
+			}
+			catch (IOException ex) {
+				socket.close();
+				throw ex;
+			}
+		}
+		return _outputs[neighbour];
+	}
+
+	private void disconnect(int neighbour)
+	{
+		if (_sockets[neighbour] == null)
+			return;
+
+		try {
+			_sockets[neighbour].close();
+		}
+		catch (IOException ex) {
+			// connection is already broken
+		}
+		_sockets[neighbour] = null;
+		_outputs[neighbour] = null;
+	}
+
+	// Stops receiving and sending migrants, migrants which weren't sent yet are dropped
+	@Override
+	public void close() throws IOException
+	{
+		_closed = true;
+		_server.close();
+		synchronized (_accepted) {
+			for (Socket socket : _accepted)
+				socket.close();
+		}
+
+		List<Thread> threads;
+		synchronized (_threads) {
+			threads = new ArrayList<>(_threads);
+		}
+		for (Thread thread : threads) {
+			try {
+				thread.join(CONNECT_TIMEOUT);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+	}
+
+	// Parses address of neighbour given as host:port
+	public static InetSocketAddress parseAddress(String address)
+	{
+		int colon = address.lastIndexOf(':');
+		if (colon < 0)
+			throw new IllegalArgumentException("Address must be host:port, " + address);
+		return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+	}
+}
@@ -0,0 +1,75 @@
+package hk.edu.gaSchedule.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Non-dominated sorting of large populations which compares chromosomes in parallel
+// Each thread counts chromosomes which dominate chromosome and collects chromosomes dominated by it,
+// fronts are then peeled off sequentially from the counts as in NSGA-II
+final class NondominatedSorting
+{
+	// Size of population from which sorting is done in parallel, smaller populations are sorted faster by one thread
+	static final int PARALLEL_THRESHOLD = 500;
+
+	// Tests dominance of chromosomes by their indices in population
+	interface Dominance
+	{
+		boolean dominates(int i, int j);
+	}
+
+	private NondominatedSorting()
+	{
+	}
+
+	// Compares each pair of n chromosomes by threads of executor, dominance must not change population meanwhile
+	// Returns indices of chromosomes dominated by each chromosome in ascending order
+	// and stores number of chromosomes which dominate each chromosome to dominatedBy
+	static int[][] compare(int n, Dominance dominance, int[] dominatedBy, ForkJoinPool executor)
+	{
+		int[][] dominated = new int[n][];
+		executor.submit(() -> IntStream.range(0, n).parallel().forEach(p -> {
+			int[] s = new int[8];
+			int size = 0;
+			for (int q = 0; q < n; ++q) {
+				if (p == q)
+					continue;
+				if (dominance.dominates(p, q)) {
+					if (size == s.length)
+						s = Arrays.copyOf(s, size * 2);
+					s[size++] = q;
+				}
+				else if (dominance.dominates(q, p))
+					++dominatedBy[p];
+			}
+			dominated[p] = Arrays.copyOf(s, size);
+		})).join();
+		return dominated;
+	}
+
+	// Returns fronts of n chromosomes, indices of each front are in ascending order
+	static List<int[]> sort(int n, Dominance dominance, ForkJoinPool executor)
+	{
+		int[] dominatedBy = new int[n];
+		int[][] dominated = compare(n, dominance, dominatedBy, executor);
+
+		List<int[]> fronts = new ArrayList<>();
+		int[] front = IntStream.range(0, n).filter(p -> dominatedBy[p] == 0).toArray();
+		while (front.length > 0) {
+			fronts.add(front);
+			int[] next = new int[n];
+			int size = 0;
+			for (int p : front) {
+				for (int q : dominated[p]) {
+					if (--dominatedBy[q] == 0)
+						next[size++] = q;
+				}
+			}
+			front = Arrays.copyOf(next, size);
+			Arrays.sort(front);
+		}
+		return fronts;
+	}
+}
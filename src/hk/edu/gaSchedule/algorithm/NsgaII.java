@@ -8,7 +8,6 @@ package hk.edu.gaSchedule.algorithm;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -16,13 +15,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import hk.edu.gaSchedule.model.Chromosome;
 import hk.edu.gaSchedule.model.Configuration;
 
-public class NsgaII<T extends Chromosome<T> >
+public class NsgaII<T extends Chromosome<T> > implements Algorithm<T>
 {
 	// Population of chromosomes
 	protected List<T> _chromosomes;
@@ -47,6 +47,12 @@ public class NsgaII<T extends Chromosome<T> >
 	
 	protected float _repeatRatio;
 
+	// Pool of threads which sort large populations into fronts, NULL if they are sorted by calling thread
+	protected ForkJoinPool _executor;
+
+	// Listener called at start of each generation, NULL if there is none
+	protected GenerationListener<T> _listener;
+
 	// Initializes NsgaII
 	private NsgaII(T prototype, int numberOfChromosomes)
     {
@@ -74,6 +80,41 @@ public class NsgaII<T extends Chromosome<T> >
 		return _chromosomes.get(0);
     }
 	
+	public ForkJoinPool getExecutor()
+	{
+		return _executor;
+	}
+
+	// Sets pool of threads which sort populations of at least NondominatedSorting.PARALLEL_THRESHOLD chromosomes
+	// Fronts are the same as when they are sorted by calling thread
+	public void setExecutor(ForkJoinPool executor)
+	{
+		_executor = executor;
+	}
+
+	public GenerationListener<T> getGenerationListener()
+	{
+		return _listener;
+	}
+
+	public void setGenerationListener(GenerationListener<T> listener)
+	{
+		_listener = listener;
+	}
+
+	// Notifies listener about generation and lets immigrants replace worst chromosomes of population
+	// Returns FALSE if listener stops algorithm
+	protected boolean notifyGeneration(int generation, List<T> population)
+	{
+		if (_listener == null)
+			return true;
+
+		List<T> immigrants = new ArrayList<>();
+		boolean proceed = _listener.onGeneration(generation, getResult(), immigrants);
+		Migration.replaceWorst(population, immigrants, i -> false);
+		return proceed;
+	}
+	
 	/************** non-dominated sorting function ***************************/
 	protected List<Set<Integer> > nonDominatedSorting(List<T> population)
 	{
@@ -82,19 +123,33 @@ public class NsgaII<T extends Chromosome<T> >
 		List<Set<Integer> > front = new ArrayList<>();
 		front.add(new HashSet<Integer>());
 		
-		for(int p = 0; p < s.length; ++p) {
-			s[p] = new HashSet<Integer>();
-			for(int q = 0; q < s.length; ++q) {
-				if(p == q)
-					continue;
-				if (population.get(p).dominates( population.get(q)))
+		// sets are filled in the same order by both branches, so fronts are iterated in the same order
+		if (_executor != null && s.length >= NondominatedSorting.PARALLEL_THRESHOLD) {
+			int[][] dominated = NondominatedSorting.compare(s.length, (p, q) -> population.get(p).dominates(population.get(q)), n, _executor);
+			for(int p = 0; p < s.length; ++p) {
+				s[p] = new HashSet<Integer>();
+				for(int q : dominated[p])
 					s[p].add(q);
-				else if(population.get(q).dominates( population.get(p)))
-					++n[p];
+				
+				if (n[p] == 0)
+					front.get(0).add(p);
+			}
+		}
+		else {
+			for(int p = 0; p < s.length; ++p) {
+				s[p] = new HashSet<Integer>();
+				for(int q = 0; q < s.length; ++q) {
+					if(p == q)
+						continue;
+					if (population.get(p).dominates( population.get(q)))
+						s[p].add(q);
+					else if(population.get(q).dominates( population.get(p)))
+						++n[p];
+				}
+				
+				if (n[p] == 0)
+		            front.get(0).add(p);
 			}
-			
-			if (n[p] == 0)
-	            front.get(0).add(p);
 		}
 		
 		int i = 0;
@@ -173,7 +228,7 @@ public class NsgaII<T extends Chromosome<T> >
     {
 		List<T> offspring = new ArrayList<>();
 		List<Integer> S = IntStream.range(0, _populationSize).boxed().collect(Collectors.toList());
-		Collections.shuffle(S);
+		Configuration.shuffle(S);
 		
 		final int halfPopulationSize = _populationSize / 2;
 		for(int m = 0; m < halfPopulationSize; ++m) {
@@ -239,6 +294,9 @@ public class NsgaII<T extends Chromosome<T> >
 				_repeatRatio = bestNotEnhance * 100.0f / maxRepeat;
 				if (bestNotEnhance > (maxRepeat / 100))		
 					reform();
+
+				if (!notifyGeneration(currentGeneration, population))
+					break;
 			}				
 			
 			/******************* crossover *****************/
@@ -9,15 +9,23 @@ package hk.edu.gaSchedule.algorithm;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 
 import hk.edu.gaSchedule.model.Chromosome;
+import hk.edu.gaSchedule.model.ChromosomePool;
 import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.RandomGenerator;
 
-public class NsgaIII<T extends Chromosome<T> >
+public class NsgaIII<T extends Chromosome<T> > implements Algorithm<T>
 {
 	// Best of chromosomes
 	protected T _best;
@@ -42,6 +50,18 @@ public class NsgaIII<T extends Chromosome<T> >
 	
 	protected List<Integer> _objDivision;
 
+	// Chromosomes dropped from population which are reused for offspring, NULL if they are not recycled
+	protected ChromosomePool<T> _pool;
+
+	// Pool of threads which create, mutate and evaluate offspring, NULL if it is done by calling thread
+	protected ForkJoinPool _executor;
+
+	// Indicates that offspring of next generation are bred while survivors of last front are chosen
+	protected boolean _pipelined;
+
+	// Listener called at start of each generation, NULL if there is none
+	protected GenerationListener<T> _listener;
+
 	// Initializes NsgaIII
 	private NsgaIII(T prototype, int numberOfChromosomes)
     {
@@ -75,6 +95,145 @@ public class NsgaIII<T extends Chromosome<T> >
 		return _best;
 	}
 	
+	public ForkJoinPool getExecutor()
+	{
+		return _executor;
+	}
+
+	// Sets pool of threads which create, mutate and evaluate offspring, NULL runs everything in calling thread
+	// Each offspring uses its own random generator seeded in fixed order, so results are the same in both modes
+	// Large populations are also sorted into fronts by threads of the pool
+	public void setExecutor(ForkJoinPool executor)
+	{
+		_executor = executor;
+	}
+
+	public boolean isPipelined()
+	{
+		return _pipelined;
+	}
+
+	// Enables breeding offspring of next generation by threads of executor while reference point niching
+	// chooses survivors from last front, it has no effect without executor
+	// Parents are drawn before niching and immigrants join population after its offspring are bred,
+	// so results differ from phased generations, but they are still the same for the same seed
+	public void setPipelined(boolean pipelined)
+	{
+		_pipelined = pipelined;
+	}
+
+	// Runs task for indices 0..n-1, in parallel if executor is set
+	protected void forEach(int n, IntConsumer task)
+	{
+		if (_executor == null) {
+			for (int i = 0; i < n; ++i)
+				task.accept(i);
+		}
+		else
+			_executor.submit(() -> IntStream.range(0, n).parallel().forEach(task)).join();
+	}
+
+	// Returns generators of n tasks split from stream of calling thread
+	protected static RandomGenerator[] generators(int n)
+	{
+		RandomGenerator[] generators = new RandomGenerator[n];
+		for (int i = 0; i < n; ++i)
+			generators[i] = Configuration.splitGenerator();
+		return generators;
+	}
+
+	// Updates particles 0..n-1 of swarm, in parallel if executor is set
+	// Each particle uses its own random generator split in fixed order, so results are the same in both modes
+	protected void updateParticles(int n, IntConsumer update)
+	{
+		RandomGenerator[] generators = generators(n);
+		forEach(n, i -> Configuration.runWith(generators[i], () -> update.accept(i)));
+	}
+
+	// Returns copy of positions which particles read while their own positions are updated
+	protected static float[][] copyOf(float[][] positions)
+	{
+		float[][] copy = new float[positions.length][];
+		for (int i = 0; i < positions.length; ++i)
+			copy[i] = positions[i].clone();
+		return copy;
+	}
+
+	// Returns global best of first n particles once they are updated
+	// Best particle so far is kept only if it dominates next particle
+	protected T globalBest(List<T> population, int n)
+	{
+		T best = population.get(0);
+		for (int i = 1; i < n; ++i) {
+			if (!best.dominates(population.get(i)))
+				best = population.get(i);
+		}
+		return best;
+	}
+
+	public ChromosomePool<T> getChromosomePool()
+	{
+		return _pool;
+	}
+
+	// Enables recycling of chromosomes dropped from population, at most capacity of them are kept for reuse
+	// Prototype is attached to pool of this algorithm, capacity 0 disables recycling
+	public void setChromosomePool(int capacity)
+	{
+		_pool = capacity > 0 ? new ChromosomePool<>(capacity) : null;
+		_prototype.setPool(_pool);
+	}
+
+	// Returns TRUE if chromosome is still referenced by algorithm outside of population
+	protected boolean isReferenced(T chromosome)
+	{
+		return chromosome == _best;
+	}
+
+	// Returns chromosome to pool if it is not referenced by algorithm
+	protected void recycle(T chromosome)
+	{
+		if (_pool != null && !isReferenced(chromosome))
+			chromosome.recycle();
+	}
+
+	public GenerationListener<T> getGenerationListener()
+	{
+		return _listener;
+	}
+
+	public void setGenerationListener(GenerationListener<T> listener)
+	{
+		_listener = listener;
+	}
+
+	// Notifies listener about generation and lets immigrants replace worst chromosomes of population
+	// Returns FALSE if listener stops algorithm
+	protected boolean notifyGeneration(int generation, List<T> population)
+	{
+		if (_listener == null)
+			return true;
+
+		List<T> immigrants = new ArrayList<>();
+		boolean proceed = _listener.onGeneration(generation, getResult(), immigrants);
+		Migration.replaceWorst(population, immigrants, i -> isReferenced(population.get(i)));
+		return proceed;
+	}
+
+	// Returns chromosomes of population which didn't survive replacement to pool
+	protected void recycle(List<T> population, List<T> survivors)
+	{
+		if (_pool == null)
+			return;
+
+		Set<T> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+		kept.addAll(survivors);
+		for (T chromosome : population) {
+			if (!kept.contains(chromosome))
+				recycle(chromosome);
+		}
+	}
+	
 	private static class ReferencePoint {
 		private int memberSize;
 		private double[] position;
@@ -355,8 +514,20 @@ public class NsgaIII<T extends Chromosome<T> >
 
 	}
 	
+	// Returns TRUE if chromosome i of population dominates chromosome j
+	private boolean dominates(List<T> pop, int i, int j)
+	{
+		return pop.get(i).dominates(pop.get(j));
+	}
+	
 	protected List<List<Integer> > nondominatedSort(List<T> pop) {
 		List<List<Integer> > fronts = new ArrayList<>();
+		if (_executor != null && pop.size() >= NondominatedSorting.PARALLEL_THRESHOLD) {
+			for (int[] front : NondominatedSorting.sort(pop.size(), (i, j) -> dominates(pop, i, j), _executor))
+				fronts.add(IntStream.of(front).boxed().collect(Collectors.toList()));
+			return fronts;
+		}
+
 		int numAssignedIndividuals = 0;
 		int rank = 1;
 		int[] indvRanks = new int[pop.size()];
@@ -370,11 +541,11 @@ public class NsgaIII<T extends Chromosome<T> >
 
 				boolean beDominated = false;
 				for (int j = 0; j < curFront.size(); ++j) {
-					if (pop.get( curFront.get(j) ).dominates(pop.get(i)) ) { // i is dominated
+					if (dominates(pop, curFront.get(j), i)) { // i is dominated
 						beDominated = true;
 						break;
 					}
-					else if (pop.get(i).dominates( pop.get( curFront.get(j) )) ) // i dominates a member in the current front
+					else if (dominates(pop, i, curFront.get(j))) // i dominates a member in the current front
 						curFront.remove(j--);
 				}
 				
@@ -431,7 +602,16 @@ public class NsgaIII<T extends Chromosome<T> >
 
 	private List<T> selection(List<T> cur, List<ReferencePoint> rps) {
 		List<T> next = new ArrayList<>();
-		
+		List<List<Integer> > fronts = survivingFronts(cur, next);
+
+		// ---------- Steps 9-10 in Algorithm 1 ----------
+		if (next.size() < _populationSize)
+			niching(cur, fronts, rps, next);
+		return next;
+	}
+
+	// Adds chromosomes of fronts which survive entirely to next, returns fronts up to last one which survives partially
+	private List<List<Integer> > survivingFronts(List<T> cur, List<T> next) {
 		// ---------- Step 4 in Algorithm 1: non-dominated sorting ----------
 		List<List<Integer> > fronts = nondominatedSort(cur);
 		
@@ -447,11 +627,11 @@ public class NsgaIII<T extends Chromosome<T> >
 			for (int frontIndv : fronts.get(t))
 				next.add(cur.get(frontIndv));
 		}
+		return fronts;
+	}
 
-		// ---------- Steps 9-10 in Algorithm 1 ----------
-		if (next.size() == _populationSize)
-			return next;
-
+	// Adds chromosomes of last front chosen by reference points to next until it is full
+	private void niching(List<T> cur, List<List<Integer> > fronts, List<ReferencePoint> rps, List<T> next) {
 		// ---------- Step 14 / Algorithm 2 ----------
 		List<Double> idealPoint = translateObjectives(cur, fronts);
 		
@@ -477,23 +657,34 @@ public class NsgaIII<T extends Chromosome<T> >
 				next.add(cur.get(chosen));
 			}
 		}
-
-		return next;
 	}
 
 	protected List<T> crossing(List<T> population)
     {
-		List<T> offspring = new ArrayList<>();
-		for (int i = 0; i < _populationSize; i += 2) {
-			int father = Configuration.rand(_populationSize), mother = Configuration.rand(_populationSize);
-			T child0 = population.get(father).crossover(population.get(mother), _numberOfCrossoverPoints, _crossoverProbability);
-			T child1 = population.get(mother).crossover(population.get(father), _numberOfCrossoverPoints, _crossoverProbability);
-			offspring.add(child0);
-			offspring.add(child1);
-		}
+		int pairs = (_populationSize + 1) / 2;
+		int[] parents = new int[2 * pairs];
+		for (int i = 0; i < parents.length; ++i)
+			parents[i] = Configuration.rand(_populationSize);
+		RandomGenerator[] generators = generators(pairs);
+
+		// tasks set distinct elements, so list is never resized concurrently
+		List<T> offspring = new ArrayList<>(Collections.nCopies(2 * pairs, null));
+		forEach(pairs, i -> Configuration.runWith(generators[i], () -> {
+			T father = population.get(parents[2 * i]), mother = population.get(parents[2 * i + 1]);
+			offspring.set(2 * i, father.crossover(mother, _numberOfCrossoverPoints, _crossoverProbability));
+			offspring.set(2 * i + 1, mother.crossover(father, _numberOfCrossoverPoints, _crossoverProbability));
+		}));
 		return offspring;
     }
 
+	// Performs mutation on each of offspring
+	protected void mutation(List<T> offspring)
+	{
+		RandomGenerator[] generators = generators(offspring.size());
+		forEach(offspring.size(), i -> Configuration.runWith(generators[i],
+			() -> offspring.get(i).mutation(_mutationSize, _mutationProbability)));
+	}
+
 	protected void initialize(List<T> population)
 	{
 		// initialize new population with chromosomes randomly built using prototype
@@ -516,6 +707,53 @@ public class NsgaIII<T extends Chromosome<T> >
 		ReferencePoint.generateReferencePoints(rps, _prototype.getObjectives().length, _objDivision);
 		return selection(population, rps);
 	}
+
+	// Crosses pair of parents and mutates both of their children
+	private void breed(List<T> population, int[] parents, int i, RandomGenerator[] crossing, RandomGenerator[] mutation, List<T> children)
+	{
+		T father = population.get(parents[2 * i]), mother = population.get(parents[2 * i + 1]);
+		Configuration.runWith(crossing[i], () -> {
+			children.set(2 * i, father.crossover(mother, _numberOfCrossoverPoints, _crossoverProbability));
+			children.set(2 * i + 1, mother.crossover(father, _numberOfCrossoverPoints, _crossoverProbability));
+		});
+		for (int c = 2 * i; c < 2 * i + 2; ++c) {
+			T child = children.get(c);
+			Configuration.runWith(mutation[c], () -> child.mutation(_mutationSize, _mutationProbability));
+		}
+	}
+
+	// Chooses survivors of population into next while offspring of next generation are bred, returns offspring
+	// Pairs whose parents are in fronts which survive entirely are bred during niching, other pairs after it
+	// Niching changes only converted objectives of parents, which offspring don't copy from them
+	private List<T> pipelinedReplacement(List<T> population, List<T> next)
+	{
+		List<List<Integer> > fronts = survivingFronts(population, next);
+		List<T> kept = new ArrayList<>(next);
+
+		int pairs = (_populationSize + 1) / 2;
+		int[] parents = new int[2 * pairs];
+		for (int i = 0; i < parents.length; ++i)
+			parents[i] = Configuration.rand(_populationSize);
+		RandomGenerator[] crossing = generators(pairs), mutation = generators(2 * pairs);
+
+		List<T> offspring = new ArrayList<>(Collections.nCopies(2 * pairs, null));
+		int[] early = IntStream.range(0, pairs).filter(i -> parents[2 * i] < kept.size() && parents[2 * i + 1] < kept.size()).toArray();
+		int[] late = IntStream.range(0, pairs).filter(i -> parents[2 * i] >= kept.size() || parents[2 * i + 1] >= kept.size()).toArray();
+		ForkJoinTask<?> bred = _executor.submit(() -> IntStream.of(early).parallel()
+			.forEach(i -> breed(kept, parents, i, crossing, mutation, offspring)));
+
+		if (next.size() < _populationSize) {
+			List<ReferencePoint> rps = new ArrayList<>();
+			ReferencePoint.generateReferencePoints(rps, _prototype.getObjectives().length, _objDivision);
+			niching(population, fronts, rps, next);
+		}
+
+		// barrier, offspring are committed once all pairs are bred
+		_executor.submit(() -> IntStream.of(late).parallel()
+			.forEach(i -> breed(next, parents, i, crossing, mutation, offspring))).join();
+		bred.join();
+		return offspring;
+	}
 	
 	// Starts and executes algorithm
 	public void run(int maxRepeat, double minFitness)
@@ -533,6 +771,8 @@ public class NsgaIII<T extends Chromosome<T> >
 		double lastBestFit = 0.0;
 
 		int cur = 0, next = 1;
+		boolean pipelined = _pipelined && _executor != null;
+		List<T> offspring = null;
 		for (; ;)
 		{
 			T best = getResult();
@@ -554,26 +794,45 @@ public class NsgaIII<T extends Chromosome<T> >
 
 				if (bestNotEnhance > (maxRepeat / 50))
 					reform();
+
+				if (!notifyGeneration(currentGeneration, pop[cur]))
+					break;
 			}
 			
-			/******************* crossover *****************/
-			List<T> offspring = crossing(pop[cur]);
-			
-			/******************* mutation *****************/
-			for(T child : offspring)
-				child.mutation(_mutationSize, _mutationProbability);
+			// offspring were already bred during last replacement in pipelined mode
+			if (offspring == null) {
+				/******************* crossover *****************/
+				offspring = crossing(pop[cur]);
+				
+				/******************* mutation *****************/
+				mutation(offspring);
+			}
 			
 			pop[cur].addAll(offspring);
 			
 			/******************* replacement *****************/	
-			pop[next] = replacement(pop[cur]);
+			if (pipelined) {
+				pop[next] = new ArrayList<>();
+				offspring = pipelinedReplacement(pop[cur], pop[next]);
+			}
+			else {
+				pop[next] = replacement(pop[cur]);
+				offspring = null;
+			}
 			_best = pop[next].get(0).dominates( pop[cur].get(0)) ? pop[next].get(0) : pop[cur].get(0);
+			recycle(pop[cur], pop[next]);
 			
 			int temp = cur;
 			cur = next;
 			next = temp;
 			++currentGeneration;
 		}
+
+		// offspring bred for generation which didn't start
+		if (offspring != null) {
+			for (T child : offspring)
+				recycle(child);
+		}
 	}	
 
 	@Override
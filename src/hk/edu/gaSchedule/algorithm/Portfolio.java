@@ -0,0 +1,205 @@
+package hk.edu.gaSchedule.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import hk.edu.gaSchedule.model.Chromosome;
+import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.RandomGenerator;
+
+// Races several algorithms on the same problem and returns best chromosome found by any of them
+// Runs share pool of threads which executes parallel work of their algorithms, each run is driven by its own thread
+// After warm-up run whose best fitness is far behind the leader is cancelled, it stops submitting work to pool
+// and its share of threads goes to runs which are still racing
+public class Portfolio<T extends Chromosome<T> > implements Algorithm<T>
+{
+	// Algorithms which are raced
+	private final List<Algorithm<T> > _algorithms;
+
+	// Number of threads of pool shared by runs
+	private final int _threads;
+
+	// Time in milliseconds after start before which no run is cancelled
+	private final long _warmup;
+
+	// Difference of best fitness from the leader's at which run is cancelled
+	private final double _margin;
+
+	// Best fitness of each run reported at start of its generation
+	private double[] _fitness;
+
+	// Indicates that run is cancelled because it is dominated by the leader
+	private boolean[] _cancelled;
+
+	private long _startTime;
+
+	// Indicates that all runs should stop at start of next generation
+	private volatile boolean _stopped;
+
+	// Listener called at start of each generation of any run, NULL if there is none
+	private GenerationListener<T> _listener;
+
+	// Initializes portfolio of algorithms, they must not be shared with other portfolios
+	public Portfolio(List<? extends Algorithm<T> > algorithms, int threads, long warmup, double margin)
+	{
+		_algorithms = new ArrayList<>(algorithms);
+		_threads = Math.max(1, threads);
+		_warmup = warmup;
+		_margin = margin;
+	}
+
+	public Portfolio(List<? extends Algorithm<T> > algorithms)
+	{
+		this(algorithms, Runtime.getRuntime().availableProcessors(), 1000, 0.05);
+	}
+
+	public List<Algorithm<T> > getAlgorithms()
+	{
+		return _algorithms;
+	}
+
+	// Returns TRUE if run of algorithm was cancelled because it was dominated by the leader
+	public synchronized boolean isCancelled(int algorithm)
+	{
+		return _cancelled != null && _cancelled[algorithm];
+	}
+
+	public GenerationListener<T> getGenerationListener()
+	{
+		return _listener;
+	}
+
+	// Sets listener called by runs one at a time, it receives generation and best chromosome of calling run
+	// Its immigrants are placed into population of that run and stopping it stops all runs
+	public void setGenerationListener(GenerationListener<T> listener)
+	{
+		_listener = listener;
+	}
+
+	// Returns fittest of best chromosomes of all runs
+	public T getResult()
+	{
+		T result = null;
+		for (Algorithm<T> algorithm : _algorithms) {
+			T best = algorithm.getResult();
+			if (best != null && (result == null || best.getFitness() > result.getFitness()))
+				result = best;
+		}
+		return result;
+	}
+
+	// Records progress of run and decides whether it should continue
+	private synchronized boolean progress(int run, T best)
+	{
+		_fitness[run] = best.getFitness();
+		if (_stopped || System.currentTimeMillis() - _startTime < _warmup)
+			return !_stopped;
+
+		double leader = 0;
+		for (int i = 0; i < _fitness.length; ++i) {
+			if (_fitness[i] > leader)
+				leader = _fitness[i];
+		}
+		if (leader - _fitness[run] > _margin)
+			_cancelled[run] = true;
+		return !_cancelled[run];
+	}
+
+	// Records progress of run at start of its generation
+	// Returns FALSE if run should stop
+	private boolean generation(int run, int generation, T best, List<T> immigrants)
+	{
+		if (!progress(run, best))
+			return false;
+
+		GenerationListener<T> listener = _listener;
+		if (listener != null) {
+			synchronized (this) {
+				if (!listener.onGeneration(generation, best, immigrants))
+					_stopped = true;
+			}
+		}
+		return !_stopped;
+	}
+
+	// Races algorithms until one of them finds chromosome fitter than minFitness or all of them finish
+	// Algorithms use shared pool during the race, their own executors and listeners are restored afterwards
+	public void run(int maxRepeat, double minFitness)
+	{
+		int n = _algorithms.size();
+		ForkJoinPool pool = new ForkJoinPool(_threads);
+		ForkJoinPool[] executors = new ForkJoinPool[n];
+		List<GenerationListener<T> > listeners = new ArrayList<>(n);
+		for (int i = 0; i < n; ++i) {
+			executors[i] = _algorithms.get(i).getExecutor();
+			listeners.add(_algorithms.get(i).getGenerationListener());
+			_algorithms.get(i).setExecutor(pool);
+		}
+		_fitness = new double[n];
+		_cancelled = new boolean[n];
+		_stopped = false;
+		_startTime = System.currentTimeMillis();
+
+		// streams are split in calling thread, so numbers drawn by run don't depend on other runs,
+		// but generation at which it is cancelled or stopped depends on timing of threads
+		RandomGenerator[] generators = new RandomGenerator[n];
+		for (int i = 0; i < n; ++i)
+			generators[i] = Configuration.splitGenerator();
+
+		Thread[] threads = new Thread[n];
+		Throwable[] errors = new Throwable[n];
+		for (int i = 0; i < n; ++i) {
+			final int run = i;
+			Algorithm<T> algorithm = _algorithms.get(i);
+			algorithm.setGenerationListener((generation, best, immigrants) -> generation(run, generation, best, immigrants));
+			threads[i] = new Thread(() -> {
+				try {
+					if (!_stopped)
+						Configuration.runWith(generators[run], () -> algorithm.run(maxRepeat, minFitness));
+					T best = algorithm.getResult();
+					if (best != null && best.getFitness() > minFitness)
+						_stopped = true;
+				}
+				catch (Throwable ex) {
+					errors[run] = ex;
+					_stopped = true;
+				}
+			}, "Portfolio " + algorithm);
+			threads[i].start();
+		}
+
+		boolean interrupted = false;
+		for (int i = 0; i < n; ++i) {
+			for (; ;) {
+				try {
+					threads[i].join();
+					break;
+				}
+				catch (InterruptedException ex) {
+					interrupted = true;
+					_stopped = true;
+				}
+			}
+		}
+
+		for (int i = 0; i < n; ++i) {
+			_algorithms.get(i).setGenerationListener(listeners.get(i));
+			_algorithms.get(i).setExecutor(executors[i]);
+		}
+		pool.shutdown();
+		if (interrupted)
+			Thread.currentThread().interrupt();
+
+		for (Throwable error : errors) {
+			if (error != null)
+				throw new IllegalStateException("Run of portfolio failed", error);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("Portfolio (%d algorithms, %d threads)", _algorithms.size(), _threads);
+	}
+}
@@ -10,6 +10,10 @@ public interface Chromosome<T extends Chromosome<T> > {
 	
 	public T makeEmptyFromPrototype(List<Integer> bounds);
 
+	// Makes new chromosome with same setup whose classes are at time-space slots written by extractGenome
+	// Throws IllegalArgumentException if genome doesn't place every class at valid slot
+	public T makeNewFromGenome(int[] genome, int offset);
+
     public float getFitness();
 
     public Configuration getConfiguration();
@@ -33,6 +37,9 @@ public interface Chromosome<T extends Chromosome<T> > {
     public void extractPositions(float[] positions);
     
     public void updatePositions(float[] positions);
+
+    // Writes time-space slot of each class starting at offset, -1 for class which is not placed
+    public void extractGenome(int[] genome, int offset);
     
     public double[] getObjectives();
     
@@ -41,6 +48,12 @@ public interface Chromosome<T extends Chromosome<T> > {
 	public void resizeConvertedObjectives(int numObj);
     
     public T clone();
+
+    // Sets pool from which chromosomes made from this one take their instances, NULL disables pooling
+    public void setPool(ChromosomePool<T> pool);
+
+    // Returns chromosome to its pool, it must not be used afterwards
+    public void recycle();
     
     public boolean dominates(T other);
     
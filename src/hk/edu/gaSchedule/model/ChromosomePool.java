@@ -0,0 +1,67 @@
+package hk.edu.gaSchedule.model;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Bounded pool of discarded chromosomes which are reset and reused instead of allocating new ones
+// Chromosomes made from prototype with pool take their instances from it, algorithm returns
+// chromosomes which are no longer referenced with Chromosome.recycle
+public final class ChromosomePool<T extends Chromosome<T> >
+{
+	private final int _capacity;
+
+	private final Deque<T> _chromosomes;
+
+	// Number of requests served from pool / which had to allocate new chromosome
+	private long _hits, _misses;
+
+	// Number of returned chromosomes which were dropped because pool was full
+	private long _dropped;
+
+	// Initializes pool which keeps at most specified number of chromosomes
+	public ChromosomePool(int capacity)
+	{
+		if (capacity <= 0)
+			throw new IllegalArgumentException("capacity must be positive");
+
+		_capacity = capacity;
+		_chromosomes = new ArrayDeque<>(Math.min(capacity, 1024));
+	}
+
+	// Returns discarded chromosome which has to be reset by caller, NULL if pool is empty
+	public synchronized T acquire()
+	{
+		T chromosome = _chromosomes.pollLast();
+		if (chromosome != null)
+			++_hits;
+		else
+			++_misses;
+		return chromosome;
+	}
+
+	// Returns chromosome to pool, caller must not use it afterwards
+	public synchronized void release(T chromosome)
+	{
+		if (_chromosomes.size() < _capacity)
+			_chromosomes.addLast(chromosome);
+		else
+			++_dropped;
+	}
+
+	public int getCapacity() { return _capacity; }
+
+	public synchronized int size() { return _chromosomes.size(); }
+
+	public synchronized long getHits() { return _hits; }
+
+	public synchronized long getMisses() { return _misses; }
+
+	public synchronized long getDropped() { return _dropped; }
+
+	// Returns ratio of requests served from pool
+	public synchronized float getHitRate()
+	{
+		long requests = _hits + _misses;
+		return requests == 0 ? 0 : (float) _hits / requests;
+	}
+}
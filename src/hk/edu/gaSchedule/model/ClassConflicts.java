@@ -0,0 +1,49 @@
+package hk.edu.gaSchedule.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Classes which cannot be held at the same time because they share professor or student groups
+// Built once after configuration is parsed, lists never change during run
+public final class ClassConflicts
+{
+	// Sorted IDs of classes which conflict in any way
+	private final int[][] _conflicts;
+
+	// Builds conflicts of classes from dense index of their professors and student groups
+	ClassConflicts(int numberOfProfessors, int numberOfGroups, int[] classProfessors, int[][] classGroups)
+	{
+		int numberOfClasses = classProfessors.length;
+
+		List<List<Integer> > professorClasses = new ArrayList<>();
+		for (int i = 0; i < numberOfProfessors; ++i)
+			professorClasses.add(new ArrayList<>());
+		List<List<Integer> > groupClasses = new ArrayList<>();
+		for (int i = 0; i < numberOfGroups; ++i)
+			groupClasses.add(new ArrayList<>());
+
+		for (int c = 0; c < numberOfClasses; ++c)
+		{
+			professorClasses.get(classProfessors[c]).add(c);
+			for (int group : classGroups[c])
+				groupClasses.get(group).add(c);
+		}
+
+		_conflicts = new int[numberOfClasses][];
+		for (int c = 0; c < numberOfClasses; ++c)
+		{
+			final int id = c;
+			IntStream professor = professorClasses.get(classProfessors[c]).stream().mapToInt(Integer::intValue);
+			IntStream groups = Arrays.stream(classGroups[c]).flatMap(g -> groupClasses.get(g).stream().mapToInt(Integer::intValue));
+			_conflicts[c] = IntStream.concat(professor, groups).filter(o -> o != id).sorted().distinct().toArray();
+		}
+	}
+
+	// Returns sorted IDs of classes which share professor or student groups with class
+	public int[] getConflicts(int classId)
+	{
+		return _conflicts[classId];
+	}
+}
@@ -6,9 +6,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Map.Entry;
 import java.util.TreeMap;
 
@@ -36,10 +36,20 @@ public class Configuration
 	// parsed classes
 	private List<CourseClass> _courseClasses;
 
+	// Lookup tables compiled after configuration is parsed
+	private ConfigurationIndex _index;
+
 	// Inidicate that configuration is not parsed yet
 	private boolean _isEmpty;
 	
-	private static Random _random = new Random(System.currentTimeMillis());
+	// Master generator from which streams of threads are split
+	private static RandomGenerator _master = new SplittableGenerator(System.currentTimeMillis());
+
+	// Incremented when master generator is replaced, streams split from older one are discarded
+	private static volatile long _epoch;
+
+	// Stream of random numbers used by current thread
+	private static final ThreadLocal<ThreadStream> _streams = ThreadLocal.withInitial(ThreadStream::new);
 
 	// Initialize data
 	public Configuration()  {
@@ -55,6 +65,11 @@ public class Configuration
 	// If there is no professor with such ID method returns NULL
 	Professor getProfessorById(int id)
 	{
+		if (_index != null)
+		{
+			int index = _index.getProfessorIndex(id);
+			return index < 0 ? null : _index.getProfessor(index);
+		}
 		if (!_professors.containsKey(id))
 			return null;
 		return _professors.get(id);
@@ -67,6 +82,11 @@ public class Configuration
 	// If there is no student group with such ID method returns NULL
 	StudentsGroup getStudentsGroupById(Integer id)
 	{
+		if (_index != null)
+		{
+			int index = _index.getStudentsGroupIndex(id);
+			return index < 0 ? null : _index.getStudentsGroup(index);
+		}
 		if (!_studentGroups.containsKey(id))
 			return null;
 		return _studentGroups.get(id);
@@ -79,6 +99,11 @@ public class Configuration
 	// If there is no course with such ID method returns NULL
 	Course getCourseById(int id)
 	{
+		if (_index != null)
+		{
+			int index = _index.getCourseIndex(id);
+			return index < 0 ? null : _index.getCourse(index);
+		}
 		if (!_courses.containsKey(id))
 			return null;
 		return _courses.get(id);	
@@ -90,6 +115,8 @@ public class Configuration
 	// If there is no room with such ID method returns NULL
 	public Room getRoomById(int id)
 	{
+		if (_index != null)
+			return _index.getRoom(id);
 		if (!_rooms.containsKey(id))
 			return null;
 		return _rooms.get(id);
@@ -98,12 +125,21 @@ public class Configuration
 	// Returns number of parsed rooms
 	public int getNumberOfRooms() { return _rooms.size(); }
 
+	// Returns coordinate of time-space slot with specified index
+	public Reservation getReservation(int index) { return _index.getReservation(index); }
+
+	// Returns coordinate of time-space slot at specified day, time and room
+	public Reservation getReservation(int day, int time, int room) { return _index.getReservation(day, time, room); }
+
 	// Returns reference to list of parsed classes
 	public List<CourseClass> getCourseClasses() { return _courseClasses; }
 
 	// Returns number of parsed classes
 	public int getNumberOfCourseClasses() { return _courseClasses.size(); }
 
+	// Returns lookup tables compiled from parsed objects, NULL if configuration is not parsed yet
+	public ConfigurationIndex getIndex() { return _index; }
+
 	// Returns TRUE if configuration is not parsed yet
 	public boolean isEmpty() { return _isEmpty; }
 
@@ -184,7 +220,7 @@ public class Configuration
 		if (!data.containsKey("size"))
 			return null;
 		Integer size = getMember(data.get("size"), Integer.class);
-		return new Room(name, lab, size);
+		return new Room(_rooms.size(), name, lab, size);
 	}
 
 	// Reads class' data from config file, makes object and returns pointer
@@ -244,7 +280,7 @@ public class Configuration
 			return null;
 
 		// make object and return
-		return new CourseClass(p, c, lab, dur, groups.toArray(new StudentsGroup[0]));
+		return new CourseClass(_courseClasses.size(), p, c, lab, dur, groups.toArray(new StudentsGroup[0]));
 	}
 	
 	public static Gson getGson() {
@@ -259,9 +295,7 @@ public class Configuration
 		_courses.clear();
 		_rooms.clear();
 		_courseClasses.clear();
-
-		Room.restartIDs();
-		CourseClass.restartIDs();
+		_index = null;
 
 		Type type = new TypeToken<Map<String, Map<String, JsonElement> >[]>(){}.getType();
 		Map<String, Map<String, JsonElement> >[] data = getGson().fromJson(json, type);
@@ -293,8 +327,10 @@ public class Configuration
 				}
 			}
 		}
+		_index = new ConfigurationIndex(_professors, _studentGroups, _courses, _rooms, _courseClasses);
 		_isEmpty = false;
 	}
+
 	
 	public void parse(Path path) throws Exception
 	{
@@ -309,19 +345,51 @@ public class Configuration
 		parse(Paths.get(file.getAbsolutePath()));
 	}
 	
+	private static final class ThreadStream
+	{
+		RandomGenerator generator;
+		long epoch = -1;
+
+		// Number of runWith tasks running in thread, their generators are kept when master is replaced
+		int pinned;
+	}
+
+	// Returns new stream split from master generator
+	private static synchronized RandomGenerator splitMaster()
+	{
+		return _master.split();
+	}
+
+	private static RandomGenerator generator()
+	{
+		ThreadStream stream = _streams.get();
+		if (stream.pinned == 0 && stream.epoch != _epoch) {
+			stream.generator = splitMaster();
+			stream.epoch = _epoch;
+		}
+		return stream.generator;
+	}
+	
 	public static int rand()
 	{
-		return _random.nextInt(32768);
+		return generator().nextInt(32768);
 	}
 	
 	public static double random()
 	{
-		return _random.nextDouble();
+		return generator().nextDouble();
 	}
 	
 	public static int rand(int size)
 	{
-		return _random.nextInt(size);
+		return generator().nextInt(size);
+	}
+	
+	// Shuffles list with stream of current thread
+	public static void shuffle(List<?> list)
+	{
+		for (int i = list.size() - 1; i > 0; --i)
+			Collections.swap(list, i, rand(i + 1));
 	}
 	
 	public static int rand(int min, int max)
@@ -331,11 +399,58 @@ public class Configuration
 	
 	public static double rand(double min, double max)
 	{
-		return min + _random.nextDouble() * (max - min);
+		return min + generator().nextDouble() * (max - min);
 	}
-	
+
+	// Returns normally distributed value with mean 0 and standard deviation 1
+	public static double gaussian()
+	{
+		return generator().nextGaussian();
+	}
+
+	// Returns generator split from stream of current thread for task which is run by runWith
+	public static RandomGenerator splitGenerator()
+	{
+		return generator().split();
+	}
+
+	// Runs task in current thread with its own generator
+	// Random numbers drawn by task don't depend on thread which runs it or on other tasks running at the same time,
+	// task keeps its generator until it returns even if master generator is replaced meanwhile
+	public static void runWith(RandomGenerator generator, Runnable task)
+	{
+		ThreadStream stream = _streams.get();
+		RandomGenerator previous = stream.generator;
+		stream.generator = generator;
+		++stream.pinned;
+		try {
+			task.run();
+		}
+		finally {
+			--stream.pinned;
+			stream.generator = previous;
+		}
+	}
+
+	// Replaces master generator, each thread splits new stream from it when it draws next number
+	// Threads running runWith tasks keep their generators until the tasks return
+	public static synchronized void setGenerator(RandomGenerator master)
+	{
+		_master = master;
+		++_epoch;
+	}
+
+	// Makes sequence of random numbers drawn by single thread reproducible
+	// It affects all threads, runWith gives single solve its own generator instead
+	public static void setSeed(long seed)
+	{
+		setGenerator(new SplittableGenerator(seed));
+	}
+
+	// Starts new stream for current thread split from its current one
 	public static void seed()
 	{
-		_random = new Random(System.currentTimeMillis());
+		ThreadStream stream = _streams.get();
+		stream.generator = generator().split();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,231 @@
+package hk.edu.gaSchedule.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// Immutable lookup tables compiled from parsed configuration
+// Maps rooms, professors, student groups and courses to dense indices 0..n-1
+// and keeps attributes used by fitness calculation in primitive arrays
+public final class ConfigurationIndex
+{
+	private final Room[] _rooms;
+	private final Professor[] _professors;
+	private final StudentsGroup[] _studentGroups;
+	private final Course[] _courses;
+	private final CourseClass[] _courseClasses;
+
+	// Sorted IDs of professors, student groups and courses, position is dense index
+	private final int[] _professorIds, _groupIds, _courseIds;
+
+	// Attributes of rooms by room ID
+	private final int[] _roomSeats;
+	private final boolean[] _roomLabs;
+
+	// Attributes of classes by class ID
+	private final int[] _classSeats;
+	private final boolean[] _classLabs;
+	private final int[] _classDurations;
+	private final int[] _classProfessors;
+	private final int[][] _classGroups;
+
+	// First node of each class in time-space slots, one node per hour of class
+	private final int[] _classNodes;
+
+	// Class which owns each node in time-space slots, node 0 is not used
+	private final int[] _nodeClasses;
+
+	// Pairs of classes which share professor or student groups
+	private final ClassConflicts _conflicts;
+
+	// Number of 64-bit words in one row of class x room tables
+	private final int _roomWords;
+
+	// Class x room tables of rooms with enough seats / with computers if class requires them
+	private final long[] _seatsEnough, _computersEnough;
+
+	// Rooms which satisfy both seats and computers requirements of each class
+	private final int[][] _feasibleRooms;
+
+	// Coordinates of all time-space slots by their index
+	private final Reservation[] _reservations;
+
+	ConfigurationIndex(Map<Integer, Professor> professors, Map<Integer, StudentsGroup> studentGroups,
+		Map<Integer, Course> courses, Map<Integer, Room> rooms, List<CourseClass> courseClasses)
+	{
+		_professors = professors.values().toArray(new Professor[0]);
+		_studentGroups = studentGroups.values().toArray(new StudentsGroup[0]);
+		_courses = courses.values().toArray(new Course[0]);
+		_professorIds = Arrays.stream(_professors).mapToInt(p -> p.Id).sorted().toArray();
+		_groupIds = Arrays.stream(_studentGroups).mapToInt(g -> g.Id).sorted().toArray();
+		_courseIds = Arrays.stream(_courses).mapToInt(c -> c.Id).sorted().toArray();
+		Arrays.sort(_professors, (p1, p2) -> Integer.compare(p1.Id, p2.Id));
+		Arrays.sort(_studentGroups, (g1, g2) -> Integer.compare(g1.Id, g2.Id));
+		Arrays.sort(_courses, (c1, c2) -> Integer.compare(c1.Id, c2.Id));
+
+		_rooms = new Room[rooms.size()];
+		_roomSeats = new int[_rooms.length];
+		_roomLabs = new boolean[_rooms.length];
+		for (Room room : rooms.values())
+		{
+			_rooms[room.Id] = room;
+			_roomSeats[room.Id] = room.NumberOfSeats;
+			_roomLabs[room.Id] = room.Lab;
+		}
+
+		int n = courseClasses.size();
+		_courseClasses = new CourseClass[n];
+		_classSeats = new int[n];
+		_classLabs = new boolean[n];
+		_classDurations = new int[n];
+		_classProfessors = new int[n];
+		_classGroups = new int[n][];
+		_classNodes = new int[n];
+		int numberOfNodes = 1;
+		for (CourseClass cc : courseClasses)
+		{
+			_courseClasses[cc.Id] = cc;
+			_classSeats[cc.Id] = cc.NumberOfSeats;
+			_classLabs[cc.Id] = cc.LabRequired;
+			_classDurations[cc.Id] = cc.Duration;
+			_classProfessors[cc.Id] = getProfessorIndex(cc.Professor.Id);
+			_classGroups[cc.Id] = cc.Groups.stream().mapToInt(g -> getStudentsGroupIndex(g.Id)).distinct().toArray();
+			_classNodes[cc.Id] = numberOfNodes;
+			numberOfNodes += cc.Duration;
+		}
+
+		_nodeClasses = new int[numberOfNodes];
+		for (int c = 0; c < n; ++c)
+		{
+			for (int i = 0; i < _classDurations[c]; ++i)
+				_nodeClasses[_classNodes[c] + i] = c;
+		}
+
+		_conflicts = new ClassConflicts(_professors.length, _studentGroups.length, _classProfessors, _classGroups);
+
+		_roomWords = (_rooms.length + 63) >>> 6;
+		_seatsEnough = new long[n * _roomWords];
+		_computersEnough = new long[n * _roomWords];
+		_feasibleRooms = new int[n][];
+		int[] feasible = new int[_rooms.length];
+		for (int c = 0; c < n; ++c)
+		{
+			int size = 0;
+			for (int r = 0; r < _rooms.length; ++r)
+			{
+				boolean seats = Criteria.isSeatEnough(_roomSeats[r], _classSeats[c]);
+				boolean computers = Criteria.isComputerEnough(_roomLabs[r], _classLabs[c]);
+				if (seats)
+					_seatsEnough[c * _roomWords + (r >>> 6)] |= 1L << r;
+				if (computers)
+					_computersEnough[c * _roomWords + (r >>> 6)] |= 1L << r;
+				if (seats && computers)
+					feasible[size++] = r;
+			}
+			_feasibleRooms[c] = Arrays.copyOf(feasible, size);
+		}
+
+		int nr = _rooms.length;
+		_reservations = new Reservation[Constant.DAYS_NUM * Constant.DAY_HOURS * nr];
+		for (int day = 0; day < Constant.DAYS_NUM; ++day)
+		{
+			for (int room = 0; room < nr; ++room)
+			{
+				for (int time = 0; time < Constant.DAY_HOURS; ++time)
+				{
+					Reservation reservation = new Reservation(nr, day, time, room);
+					_reservations[reservation.hashCode()] = reservation;
+				}
+			}
+		}
+	}
+
+	private static int indexOf(int[] ids, int id)
+	{
+		int index = Arrays.binarySearch(ids, id);
+		return index < 0 ? -1 : index;
+	}
+
+	// Returns dense index of professor with specified ID, -1 if there is no such professor
+	public int getProfessorIndex(int id) { return indexOf(_professorIds, id); }
+
+	// Returns dense index of student group with specified ID, -1 if there is no such group
+	public int getStudentsGroupIndex(int id) { return indexOf(_groupIds, id); }
+
+	// Returns dense index of course with specified ID, -1 if there is no such course
+	public int getCourseIndex(int id) { return indexOf(_courseIds, id); }
+
+	public Professor getProfessor(int index) { return _professors[index]; }
+
+	public StudentsGroup getStudentsGroup(int index) { return _studentGroups[index]; }
+
+	public Course getCourse(int index) { return _courses[index]; }
+
+	// Returns room with specified ID, null if there is no such room
+	public Room getRoom(int id) { return id >= 0 && id < _rooms.length ? _rooms[id] : null; }
+
+	public CourseClass getCourseClass(int id) { return _courseClasses[id]; }
+
+	public int getNumberOfRooms() { return _rooms.length; }
+
+	public int getNumberOfProfessors() { return _professors.length; }
+
+	public int getNumberOfStudentGroups() { return _studentGroups.length; }
+
+	public int getNumberOfCourseClasses() { return _courseClasses.length; }
+
+	public int getRoomSeats(int room) { return _roomSeats[room]; }
+
+	public boolean isRoomLab(int room) { return _roomLabs[room]; }
+
+	public int getClassSeats(int classId) { return _classSeats[classId]; }
+
+	public boolean isClassLab(int classId) { return _classLabs[classId]; }
+
+	public int getClassDuration(int classId) { return _classDurations[classId]; }
+
+	// Returns dense index of professor who teaches class
+	public int getClassProfessor(int classId) { return _classProfessors[classId]; }
+
+	// Returns dense indices of distinct student groups who attend class, array must not be modified
+	int[] getClassGroups(int classId) { return _classGroups[classId]; }
+
+	// Returns first node of class in time-space slots
+	int getClassNode(int classId) { return _classNodes[classId]; }
+
+	// Returns class which owns node in time-space slots
+	int getNodeClass(int node) { return _nodeClasses[node]; }
+
+	// Returns number of nodes in time-space slots including unused node 0
+	int getNumberOfNodes() { return _nodeClasses.length; }
+
+	// Returns conflicts between classes which share professor or student groups
+	public ClassConflicts getConflicts() { return _conflicts; }
+
+	// Returns TRUE if room has enough seats for class
+	public boolean isSeatEnough(int classId, int room)
+	{
+		return (_seatsEnough[classId * _roomWords + (room >>> 6)] & (1L << room)) != 0;
+	}
+
+	// Returns TRUE if room has computers or class doesn't require them
+	public boolean isComputerEnough(int classId, int room)
+	{
+		return (_computersEnough[classId * _roomWords + (room >>> 6)] & (1L << room)) != 0;
+	}
+
+	// Returns rooms which have enough seats and computers for class, array must not be modified
+	int[] getFeasibleRooms(int classId) { return _feasibleRooms[classId]; }
+
+	// Returns number of rooms which have enough seats and computers for class
+	public int getNumberOfFeasibleRooms(int classId) { return _feasibleRooms[classId].length; }
+
+	// Returns coordinate of time-space slot with specified index
+	public Reservation getReservation(int index) { return _reservations[index]; }
+
+	// Returns coordinate of time-space slot at specified day, time and room
+	public Reservation getReservation(int day, int time, int room)
+	{
+		return _reservations[Reservation.hashCode(_rooms.length, day, time, room)];
+	}
+}
@@ -6,12 +6,10 @@ import java.util.List;
 
 public class CourseClass implements Comparable<CourseClass>
 {
-	// ID counter used to assign IDs automatically
-    private static int _nextClassId = 0;
-	// Initializes class object
-	public CourseClass(Professor professor, Course course, boolean requiresLab, int duration, StudentsGroup... groups)
+	// Initializes class object, ID is position of class in its configuration
+	public CourseClass(int id, Professor professor, Course course, boolean requiresLab, int duration, StudentsGroup... groups)
     {
-		Id = _nextClassId++;
+		Id = id;
 		Professor = professor;
 		Course = course;
 		NumberOfSeats = 0;
@@ -32,6 +30,7 @@ public class CourseClass implements Comparable<CourseClass>
 	}
 
 	// Returns TRUE if another class has one or overlapping student groups.
+	// ConfigurationIndex.getConflicts() lists classes which share professor or student groups with parsed class
 	public boolean groupsOverlap(CourseClass c)
     {
 		return !Collections.disjoint(Groups, c.Groups);
@@ -42,7 +41,7 @@ public class CourseClass implements Comparable<CourseClass>
 		return Professor.equals(c.Professor);
 	}
 	
-	// Returns class ID - automatically assigned
+	// Returns class ID - assigned by configuration
     public int Id;
 
 	// Return pointer to professor who teaches
@@ -63,9 +62,6 @@ public class CourseClass implements Comparable<CourseClass>
 	// Returns duration of class in hours
 	public int Duration;	
 
-	// Restarts ID assigments
-    public static void restartIDs() { _nextClassId = 0; }
-
 	@Override
 	public int compareTo(CourseClass that) {
 		if(that == null)
@@ -0,0 +1,132 @@
+package hk.edu.gaSchedule.model;
+
+import java.util.Arrays;
+
+// Array of ints split into pages which are shared between copies until one of them writes
+// Copy takes constant time, first write to shared page copies only that page
+final class CowIntArray
+{
+	// Number of ints in one page is 1 << PAGE_BITS
+	private static final int PAGE_BITS = 8;
+	private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+	private final int _length;
+
+	// Pages of array and tokens of arrays which own them, only owner may change page in place
+	private int[][] _pages;
+	private Object[] _owners;
+
+	// Token of this array, replaced on copy so that all pages become shared
+	private Object _token;
+
+	// Indicates that page directory is shared with copies and must be cloned before write
+	private boolean _shared;
+
+	// Initializes array of specified length filled with value
+	CowIntArray(int length, int value)
+	{
+		_length = length;
+		_token = new Object();
+		int n = (length + PAGE_MASK) >>> PAGE_BITS;
+		_pages = new int[n][];
+		_owners = new Object[n];
+		for (int p = 0; p < n; ++p)
+		{
+			_pages[p] = new int[Math.min(PAGE_MASK + 1, length - (p << PAGE_BITS))];
+			if (value != 0)
+				Arrays.fill(_pages[p], value);
+			_owners[p] = _token;
+		}
+	}
+
+	CowIntArray(int length)
+	{
+		this(length, 0);
+	}
+
+	private CowIntArray(CowIntArray c)
+	{
+		_length = c._length;
+		_pages = c._pages;
+		_owners = c._owners;
+		_token = new Object();
+		_shared = true;
+	}
+
+	// Returns copy of array, pages are shared until this array or copy changes them
+	// Source must not be changed by other thread while it is copied
+	CowIntArray copy()
+	{
+		_token = new Object();
+		_shared = true;
+		return new CowIntArray(this);
+	}
+
+	// Returns page which may be changed in place, copies it first if it is shared
+	private int[] page(int p)
+	{
+		if (_shared)
+		{
+			_pages = _pages.clone();
+			_owners = _owners.clone();
+			_shared = false;
+		}
+		if (_owners[p] != _token)
+		{
+			_pages[p] = _pages[p].clone();
+			_owners[p] = _token;
+		}
+		return _pages[p];
+	}
+
+	int length() { return _length; }
+
+	int get(int i) { return _pages[i >>> PAGE_BITS][i & PAGE_MASK]; }
+
+	void set(int i, int value)
+	{
+		page(i >>> PAGE_BITS)[i & PAGE_MASK] = value;
+	}
+
+	// Sets all elements to value, pages owned by this array are reused
+	void fill(int value)
+	{
+		if (_shared)
+		{
+			_pages = _pages.clone();
+			_owners = _owners.clone();
+			_shared = false;
+		}
+		for (int p = 0; p < _pages.length; ++p)
+		{
+			if (_owners[p] == _token)
+				Arrays.fill(_pages[p], value);
+			else
+			{
+				_pages[p] = new int[_pages[p].length];
+				if (value != 0)
+					Arrays.fill(_pages[p], value);
+				_owners[p] = _token;
+			}
+		}
+	}
+
+	// Returns TRUE if both arrays have the same elements, pages shared by arrays are not compared
+	boolean contentEquals(CowIntArray other)
+	{
+		if (_length != other._length)
+			return false;
+		for (int p = 0; p < _pages.length; ++p)
+		{
+			if (_pages[p] != other._pages[p] && !Arrays.equals(_pages[p], other._pages[p]))
+				return false;
+		}
+		return true;
+	}
+
+	// Adds delta to element and returns its new value
+	int add(int i, int delta)
+	{
+		return page(i >>> PAGE_BITS)[i & PAGE_MASK] += delta;
+	}
+}
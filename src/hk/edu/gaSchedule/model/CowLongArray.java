@@ -0,0 +1,113 @@
+package hk.edu.gaSchedule.model;
+
+import java.util.Arrays;
+
+// Array of longs split into pages which are shared between copies until one of them writes
+// Copy takes constant time, first write to shared page copies only that page
+final class CowLongArray
+{
+	// Number of longs in one page is 1 << PAGE_BITS
+	private static final int PAGE_BITS = 8;
+	private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+	private final int _length;
+
+	// Pages of array and tokens of arrays which own them, only owner may change page in place
+	private long[][] _pages;
+	private Object[] _owners;
+
+	// Token of this array, replaced on copy so that all pages become shared
+	private Object _token;
+
+	// Indicates that page directory is shared with copies and must be cloned before write
+	private boolean _shared;
+
+	// Initializes array of specified length filled with value
+	CowLongArray(int length, long value)
+	{
+		_length = length;
+		_token = new Object();
+		int n = (length + PAGE_MASK) >>> PAGE_BITS;
+		_pages = new long[n][];
+		_owners = new Object[n];
+		for (int p = 0; p < n; ++p)
+		{
+			_pages[p] = new long[Math.min(PAGE_MASK + 1, length - (p << PAGE_BITS))];
+			if (value != 0)
+				Arrays.fill(_pages[p], value);
+			_owners[p] = _token;
+		}
+	}
+
+	CowLongArray(int length)
+	{
+		this(length, 0);
+	}
+
+	private CowLongArray(CowLongArray c)
+	{
+		_length = c._length;
+		_pages = c._pages;
+		_owners = c._owners;
+		_token = new Object();
+		_shared = true;
+	}
+
+	// Returns copy of array, pages are shared until this array or copy changes them
+	// Source must not be changed by other thread while it is copied
+	CowLongArray copy()
+	{
+		_token = new Object();
+		_shared = true;
+		return new CowLongArray(this);
+	}
+
+	// Returns page which may be changed in place, copies it first if it is shared
+	private long[] page(int p)
+	{
+		if (_shared)
+		{
+			_pages = _pages.clone();
+			_owners = _owners.clone();
+			_shared = false;
+		}
+		if (_owners[p] != _token)
+		{
+			_pages[p] = _pages[p].clone();
+			_owners[p] = _token;
+		}
+		return _pages[p];
+	}
+
+	// Sets all elements to value, pages owned by this array are reused
+	void fill(long value)
+	{
+		if (_shared)
+		{
+			_pages = _pages.clone();
+			_owners = _owners.clone();
+			_shared = false;
+		}
+		for (int p = 0; p < _pages.length; ++p)
+		{
+			if (_owners[p] == _token)
+				Arrays.fill(_pages[p], value);
+			else
+			{
+				_pages[p] = new long[_pages[p].length];
+				if (value != 0)
+					Arrays.fill(_pages[p], value);
+				_owners[p] = _token;
+			}
+		}
+	}
+
+	int length() { return _length; }
+
+	long get(int i) { return _pages[i >>> PAGE_BITS][i & PAGE_MASK]; }
+
+	void set(int i, long value)
+	{
+		page(i >>> PAGE_BITS)[i & PAGE_MASK] = value;
+	}
+}
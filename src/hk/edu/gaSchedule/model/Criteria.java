@@ -1,66 +1,46 @@
 package hk.edu.gaSchedule.model;
 
-import java.util.List;
-
 public class Criteria {
 
-	static boolean isRoomOverlapped(List<CourseClass>[] slots, Reservation reservation, int dur)
+	// Flags returned by isOverlappedProfStudentGrp
+	static final int PROFESSOR_OVERLAP = 1;
+	static final int GROUPS_OVERLAP = 2;
+
+	static boolean isRoomOverlapped(SlotTable slots, int reservationIndex, int dur)
 	{
 		// check for room overlapping of classes
 		for (int i = dur - 1; i >= 0; i--)
 		{
-			if (slots[reservation.hashCode() + i].size() > 1)
+			if (slots.getCount(reservationIndex + i) > 1)
 				return true;
 		}
 		return false;
 	}
 	
-	static boolean isSeatEnough(Room r, CourseClass cc)
+	static boolean isSeatEnough(int roomSeats, int classSeats)
 	{
 		// does current room have enough seats
-		return r.NumberOfSeats >= cc.NumberOfSeats;
+		return roomSeats >= classSeats;
 	}
 	
-	static boolean isComputerEnough(Room r, CourseClass cc)
+	static boolean isComputerEnough(boolean roomLab, boolean labRequired)
 	{
 		// does current room have computers if they are required
-		return !cc.LabRequired || (cc.LabRequired && r.Lab);
+		return !labRequired || (labRequired && roomLab);
 	}
 	
-	static boolean[] isOverlappedProfStudentGrp(List<CourseClass>[] slots, CourseClass cc, int numberOfRooms, int timeId)
+	// Returns PROFESSOR_OVERLAP and GROUPS_OVERLAP flags combined
+	static int isOverlappedProfStudentGrp(WeeklyOccupancy professors, WeeklyOccupancy groups, int professor, int[] classGroups, int hour, int dur)
 	{
-		boolean po = false, go = false;
-		
-		int dur = cc.Duration;
-		// check overlapping of classes for professors and student groups
-		for (int i = numberOfRooms; i > 0; --i, timeId += Constant.DAY_HOURS)
-		{
-			// for each hour of class
-			for (int j = dur - 1; j >= 0; --j)
-			{				
-				// check for overlapping with other classes at same time
-				List<CourseClass> cl = slots[timeId + j];
-				for (CourseClass cc1 : cl)
-				{
-					if (cc != cc1)
-					{
-						// professor overlaps?
-						if (!po && cc.professorOverlaps(cc1))
-							po = true;
+		// professor has other class at the same time?
+		boolean po = professors.overlaps(professor, hour, dur);
 
-						// student group overlaps?
-						if (!go && cc.groupsOverlap(cc1))
-							go = true;
-
-						// both type of overlapping? no need to check more
-						if (po && go)
-							return new boolean[] {po, go};
-					}
-				}
-			}
-		}
+		// any of student groups has other class at the same time?
+		boolean go = false;
+		for (int i = 0; !go && i < classGroups.length; ++i)
+			go = groups.overlaps(classGroups[i], hour, dur);
 
-		return new boolean[] {po, go};
+		return (po ? PROFESSOR_OVERLAP : 0) | (go ? GROUPS_OVERLAP : 0);
 	}
 	
 	public static final float[] weights = { 0f, .5f, .5f, 0f, 0f };
@@ -0,0 +1,64 @@
+package hk.edu.gaSchedule.model;
+
+// Time-space slots with entry for every slot
+final class DenseSlotTable extends SlotTable
+{
+	// Number of classes occupying each slot
+	private final CowIntArray _count;
+
+	// First node in each slot, 0 if slot is empty
+	private final CowIntArray _head;
+
+	DenseSlotTable(Configuration configuration)
+	{
+		super(configuration);
+		_count = new CowIntArray(size());
+		_head = new CowIntArray(size());
+	}
+
+	private DenseSlotTable(DenseSlotTable c)
+	{
+		super(c);
+		_count = c._count.copy();
+		_head = c._head.copy();
+	}
+
+	@Override
+	public SlotTable copy()
+	{
+		return new DenseSlotTable(this);
+	}
+
+	@Override
+	public void clear()
+	{
+		_count.fill(0);
+		_head.fill(0);
+	}
+
+	@Override
+	public boolean isSparse() { return false; }
+
+	@Override
+	protected int push(int slot, int node)
+	{
+		int head = _head.get(slot);
+		_head.set(slot, node);
+		_count.add(slot, 1);
+		return head;
+	}
+
+	@Override
+	protected void pop(int slot, int head)
+	{
+		if (head >= 0)
+			_head.set(slot, head);
+		_count.add(slot, -1);
+	}
+
+	@Override
+	public int getCount(int slot) { return _count.get(slot); }
+
+	@Override
+	public int first(int slot) { return _head.get(slot); }
+}
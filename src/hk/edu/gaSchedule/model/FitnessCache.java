@@ -0,0 +1,93 @@
+package hk.edu.gaSchedule.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded cache of evaluated chromosomes, least recently used entries are evicted first
+// Entries are found by genome hash and verified against stored genome, so hash collisions never return wrong fitness
+// Can be shared by chromosomes evaluated in different threads
+public final class FitnessCache
+{
+	// Evaluation result of one genome, stored arrays are never changed
+	static final class Entry
+	{
+		final CowIntArray genome;
+		final float score;
+		final double[] objectives;
+		final long[] criteria;
+
+		private Entry(CowIntArray genome, float score, double[] objectives, long[] criteria)
+		{
+			this.genome = genome;
+			this.score = score;
+			this.objectives = objectives;
+			this.criteria = criteria;
+		}
+	}
+
+	private final int _capacity;
+
+	private final Map<Long, Entry> _entries;
+
+	// Number of lookups which found / didn't find evaluated genome
+	private long _hits, _misses;
+
+	// Initializes cache which keeps at most specified number of genomes
+	public FitnessCache(int capacity)
+	{
+		if (capacity <= 0)
+			throw new IllegalArgumentException("capacity must be positive");
+
+		_capacity = capacity;
+		_entries = new LinkedHashMap<Long, Entry>(16, .75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, FitnessCache.Entry> eldest)
+			{
+				return size() > _capacity;
+			}
+		};
+	}
+
+	// Returns evaluation of genome, NULL if it is not in cache
+	synchronized Entry get(long hash, CowIntArray genome)
+	{
+		Entry entry = _entries.get(hash);
+		if (entry != null && entry.genome.contentEquals(genome))
+		{
+			++_hits;
+			return entry;
+		}
+		++_misses;
+		return null;
+	}
+
+	// Stores evaluation of genome, arrays must not be changed after they are passed to cache
+	synchronized void put(long hash, CowIntArray genome, float score, double[] objectives, long[] criteria)
+	{
+		_entries.put(hash, new Entry(genome, score, objectives, criteria));
+	}
+
+	public int getCapacity() { return _capacity; }
+
+	public synchronized int size() { return _entries.size(); }
+
+	public synchronized long getHits() { return _hits; }
+
+	public synchronized long getMisses() { return _misses; }
+
+	// Returns ratio of lookups which found evaluated genome
+	public synchronized float getHitRate()
+	{
+		long lookups = _hits + _misses;
+		return lookups == 0 ? 0 : (float) _hits / lookups;
+	}
+
+	// Removes all entries and resets counters
+	public synchronized void clear()
+	{
+		_entries.clear();
+		_hits = _misses = 0;
+	}
+}
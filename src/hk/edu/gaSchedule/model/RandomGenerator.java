@@ -0,0 +1,20 @@
+package hk.edu.gaSchedule.model;
+
+// Source of random numbers used by algorithms, see Configuration.setGenerator
+// Instance is used by single thread at a time, split returns independent stream for another thread or task
+public interface RandomGenerator
+{
+	// Returns uniformly distributed value in range [0, bound)
+	public int nextInt(int bound);
+
+	public long nextLong();
+
+	// Returns uniformly distributed value in range [0, 1)
+	public double nextDouble();
+
+	// Returns normally distributed value with mean 0 and standard deviation 1
+	public double nextGaussian();
+
+	// Returns new generator whose values don't overlap with values of this one, advances this generator
+	public RandomGenerator split();
+}
@@ -1,20 +1,19 @@
 package hk.edu.gaSchedule.model;
 
-import java.util.HashMap;
-import java.util.Map;
-
+// Immutable coordinate of time-space slot, instances are obtained from Configuration.getReservation
 public class Reservation {
-	private static Map<Integer, Reservation> _reservationPool = new HashMap<>();
-	
-	private static int NR;
 	private final int day;
 	private final int time;
 	private final int room;
+
+	// Index of time-space slot in chromosome
+	private final int index;
 	
-	private Reservation(int day, int time, int room) {		
+	Reservation(int nr, int day, int time, int room) {		
 		this.day = day;
 		this.time = time;
 		this.room = room;
+		this.index = hashCode(nr, day, time, room);
 	}	
 
 	public int getDay() {
@@ -29,41 +28,12 @@ public class Reservation {
 		return room;
 	}
 	
-	public static Reservation getReservation(int hashCode)
+	// Returns index of time-space slot for specified number of rooms
+	static int hashCode(int nr, int day, int time, int room)
 	{
-		Reservation reservation = _reservationPool.get(hashCode);
-		if(reservation == null) {
-			final int day = hashCode / (Constant.DAY_HOURS * NR);
-			final int hashCode2 = hashCode - (day * Constant.DAY_HOURS * NR);
-		    final int room = hashCode2 / Constant.DAY_HOURS;
-		    final int time = hashCode2 % Constant.DAY_HOURS;
-			reservation = new Reservation(day, time, room);
-			_reservationPool.put(hashCode, reservation);
-		}
-		return reservation;
+		return day * Constant.DAY_HOURS * nr + room * Constant.DAY_HOURS + time;
 	}
 	
-	private static int hashCode(int day, int time, int room)
-	{
-		return day * Constant.DAY_HOURS * NR + room * Constant.DAY_HOURS + time;
-	}
-	
-	public static Reservation getReservation(int nr, int day, int time, int room)
-	{
-		if(nr != NR && nr > 0) {
-			NR = nr;
-			_reservationPool.clear();
-		}
-		
-		int hashCode = hashCode(day, time, room);
-		Reservation reservation = getReservation(hashCode);
-		if(reservation == null) {
-			reservation = new Reservation(day, time, room);
-			_reservationPool.put(hashCode, reservation);
-		}
-		return reservation;
-	}	
-	
 	@Override
 	public boolean equals(Object obj)
 	{
@@ -78,7 +48,7 @@ public class Reservation {
 	@Override
 	public int hashCode()
 	{
-		return hashCode(day, time, room);
+		return index;
 	}
 	
 }
@@ -3,19 +3,16 @@ package hk.edu.gaSchedule.model;
 // Stores data about classroom
 public class Room
 {
-    // ID counter used to assign IDs automatically
-    private static int _nextRoomId = 0;
-
-    // Initializes room data and assign ID to room
-    public Room(String name, boolean lab, int numberOfSeats)
+    // Initializes room data, ID is position of room in its configuration
+    public Room(int id, String name, boolean lab, int numberOfSeats)
     {
-        Id = _nextRoomId++;
+        Id = id;
         Name = name;
         Lab = lab;
         NumberOfSeats = numberOfSeats;
     }
 
-    // Returns room ID - automatically assigned
+    // Returns room ID - assigned by configuration
     public int Id;
 
     // Returns name
@@ -26,7 +23,4 @@ public class Room
 
     // Returns number of seats in room
     public int NumberOfSeats;
-
-    // Restarts ID assigments
-    public static void restartIDs() { _nextRoomId = 0; }
 }
@@ -1,6 +1,7 @@
 package hk.edu.gaSchedule.model;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
@@ -13,15 +14,35 @@ public class Schedule implements Chromosome<Schedule>
 	// Fitness value of chromosome
 	private float _fitness;
 
-	// Flags of class requirements satisfaction
-	private boolean[] _criteria;
+	// Sum of scores of all classes, fitness is derived from it
+	private float _score;
+
+	// Indicates that score, criteria and objectives reflect current class table
+	private boolean _evaluated;
+
+	// Classes which have to be re-evaluated after some classes were moved
+	private int[] _dirty;
+	private int _dirtySize;
+	private boolean[] _dirtyFlags;
+
+	// Flags of class requirements satisfaction packed in 64-bit words
+	private long[] _criteria;
+
+	// Indicates that flags are shared with copy of chromosome and must be copied before change
+	private boolean _criteriaShared;
 
 	// Time-space slots, one entry represent one hour in one classroom
-	private List<CourseClass>[] _slots;
+	private SlotTable _slots;
+
+	// Weekly occupancy of professors and student groups
+	private WeeklyOccupancy _professors, _groups;
 
-	// Class table for chromosome
-	// Used to determine first time-space slot used by class
-	private Map<CourseClass, Integer> _classes;
+	// Class table for chromosome, indexed by CourseClass.Id
+	// Used to determine first time-space slot used by class, -1 if class is not placed yet
+	private CowIntArray _classes;
+
+	// Hash of class table, XOR of keys of all placed classes at their time-space slots
+	private long _hash;
 	
 	private float _diversity;
 	
@@ -30,6 +51,18 @@ public class Schedule implements Chromosome<Schedule>
 	private double[] _convertedObjectives;
 	private double[] _objectives;
 
+	// Indicates that random placement chooses only rooms with enough seats and computers for class
+	private boolean _feasibleRoomsOnly;
+
+	// Cache of evaluated class tables, NULL if fitness is always calculated
+	private FitnessCache _fitnessCache;
+
+	// Pool from which new chromosomes are taken, NULL if they are always allocated
+	private ChromosomePool<Schedule> _pool;
+
+	// Indicates that chromosome was returned to pool
+	private boolean _recycled;
+
 	// Initializes chromosomes with configuration block (setup of chromosome)
 	public Schedule(Configuration configuration)
 	{
@@ -37,40 +70,92 @@ public class Schedule implements Chromosome<Schedule>
 		_fitness = 0;
 
 		// reserve space for time-space slots in chromosomes code
-		_slots = (List<CourseClass>[]) new List[Constant.DAYS_NUM * Constant.DAY_HOURS * _configuration.getNumberOfRooms()];
-		for(int i = 0; i < _slots.length; ++i)
-			_slots[i] = new ArrayList<CourseClass>();
-		_classes = new LinkedHashMap<>();
+		_slots = SlotTable.create(_configuration);
+		_professors = new WeeklyOccupancy(_configuration.getNumberOfProfessors());
+		_groups = new WeeklyOccupancy(_configuration.getNumberOfStudentGroups());
+		_classes = new CowIntArray(_configuration.getNumberOfCourseClasses(), -1);
 
 		// reserve space for flags of class requirements
-		_criteria = new boolean[_configuration.getNumberOfCourseClasses() * Criteria.weights.length];
+		_criteria = new long[(_configuration.getNumberOfCourseClasses() * Criteria.weights.length + 63) >>> 6];
 		
 		// increment value when criteria violation occurs
 		_objectives = new double[Criteria.weights.length];
 	}
 
 	// Copy constructor
+	// Code and flags are shared with c until one of chromosomes changes them, so copying takes constant time
+	private Schedule(Schedule c)
+	{
+		_configuration = c._configuration;
+		_feasibleRoomsOnly = c._feasibleRoomsOnly;
+		_fitnessCache = c._fitnessCache;
+		_pool = c._pool;
+
+		// copy code
+		_slots = c._slots.copy();
+		_professors = c._professors.copy();
+		_groups = c._groups.copy();
+		_classes = c._classes.copy();
+		_hash = c._hash;
+
+		// share flags of class requirements
+		_criteria = c._criteria;
+		_criteriaShared = c._criteriaShared = true;
+		_objectives = c._objectives.clone();
+
+		// copy fitness
+		_fitness = c._fitness;
+		_score = c._score;
+		_evaluated = c._evaluated;
+		if(c._dirtySize > 0) {
+			_dirty = c._dirty.clone();
+			_dirtyFlags = c._dirtyFlags.clone();
+		}
+		_dirtySize = c._dirtySize;
+	}
+
 	private Schedule copy(Schedule c, boolean setupOnly)
 	{		
 		if (!setupOnly)
-		{
-			_configuration = c._configuration;
-			// copy code				
-			_slots = c._slots.clone();
-			_classes = new LinkedHashMap<>(c._classes);
-
-			// copy flags of class requirements
-			_criteria = c._criteria.clone();
-			_objectives = c._objectives.clone();
+			return new Schedule(c);
+
+		Schedule n = c._pool != null ? c._pool.acquire() : null;
+		if (n != null && n._configuration == c._configuration)
+			n.reset();
+		else
+			n = new Schedule(c._configuration);
+		n._feasibleRoomsOnly = c._feasibleRoomsOnly;
+		n._fitnessCache = c._fitnessCache;
+		n._pool = c._pool;
+		return n;
+	}
 
-			// copy fitness
-			_fitness = c._fitness;
-			
-			if(c._convertedObjectives != null)
-				_convertedObjectives = c._convertedObjectives.clone();
-			return this;
+	// Removes all classes and fitness of recycled chromosome, so it is in state of newly initialized one
+	private void reset()
+	{
+		_slots.clear();
+		_professors.clear();
+		_groups.clear();
+		_classes.fill(-1);
+		_hash = 0;
+
+		if(_criteriaShared) {
+			_criteria = new long[_criteria.length];
+			_criteriaShared = false;
 		}
-		return new Schedule(c._configuration);
+		else
+			Arrays.fill(_criteria, 0);
+		Arrays.fill(_objectives, 0);
+		_convertedObjectives = null;
+
+		_fitness = 0;
+		_score = 0;
+		_evaluated = false;
+		if(_dirty != null)
+			clearDirty();
+		_diversity = 0;
+		_rank = 0;
+		_recycled = false;
 	}
 
 	// Makes new chromosome with same setup but with randomly chosen code
@@ -88,9 +173,9 @@ public class Schedule implements Chromosome<Schedule>
 			int dur = courseClass.Duration;
 
 			int day = Configuration.rand(0, Constant.DAYS_NUM - 1);
-			int room = Configuration.rand(0, nr - 1);
+			int room = randomRoom(courseClass, nr);
 			int time = Configuration.rand(0, (Constant.DAY_HOURS - 1 - dur));				
-			Reservation reservation = Reservation.getReservation(nr, day, time, room);
+			Reservation reservation = _configuration.getReservation(day, time, room);
 
 			if(positions != null) {
 				positions.add(reservation.getDay() * 1.0f);
@@ -99,11 +184,7 @@ public class Schedule implements Chromosome<Schedule>
 			}
 
 			// fill time-space slots, for each hour of class
-			for (int i = dur - 1; i >= 0; --i)
-				newChromosome._slots[reservation.hashCode() + i].add(courseClass);
-
-			// insert in class table of chromosome
-			newChromosome._classes.put(courseClass, reservation.hashCode());
+			newChromosome.place(courseClass, reservation.hashCode());
 		}
 
 		newChromosome.calculateFitness();
@@ -133,14 +214,32 @@ public class Schedule implements Chromosome<Schedule>
 				bounds.add(nr - 1);
 				bounds.add(Constant.DAY_HOURS - 1 - dur);
 			}
-			
-			// insert in class table of chromosome
-			newChromosome._classes.put(courseClass, null);
 		}
 
 		return newChromosome;
 	}
 
+	// Makes new chromosome with same setup and code taken from genome in which every class is placed
+	public Schedule makeNewFromGenome(int[] genome, int offset)
+	{
+		int slots = Constant.DAYS_NUM * Constant.DAY_HOURS * _configuration.getNumberOfRooms();
+		List<CourseClass> c = _configuration.getCourseClasses();
+		for (CourseClass courseClass : c)
+		{
+			int reservationIndex = genome[offset + courseClass.Id];
+			if (reservationIndex < 0 || reservationIndex >= slots || reservationIndex % Constant.DAY_HOURS + courseClass.Duration > Constant.DAY_HOURS)
+				throw new IllegalArgumentException("Invalid time-space slot " + reservationIndex + " of class " + courseClass.Id);
+		}
+
+		// make new chromosome, copy chromosome setup
+		Schedule newChromosome = copy(this, true);
+		for (CourseClass courseClass : c)
+			newChromosome.place(courseClass, genome[offset + courseClass.Id]);
+
+		newChromosome.calculateFitness();
+		return newChromosome;
+	}
+
 	// Performes crossover operation using to chromosomes and returns pointer to offspring
 	public Schedule crossover(Schedule parent, int numberOfCrossoverPoints, float crossoverProbability)
 	{
@@ -153,7 +252,7 @@ public class Schedule implements Chromosome<Schedule>
 		Schedule n = copy(this, true);
 
 		// number of classes
-		int size = _classes.size();
+		int size = _classes.length();
 
 		boolean[] cp = new boolean[size];
 
@@ -173,30 +272,14 @@ public class Schedule implements Chromosome<Schedule>
 
 		// make new code by combining parent codes
 		boolean first = Configuration.rand() % 2 == 0;
-		CourseClass[] classes = _classes.keySet().toArray(new CourseClass[0]);
-		CourseClass[] parentClasses = parent._classes.keySet().toArray(new CourseClass[0]);
+		List<CourseClass> classes = _configuration.getCourseClasses();
 		for (int i = 0; i < size; ++i)
 		{
-			if (first)
-			{
-				CourseClass courseClass = classes[i];
-				Reservation reservation = Reservation.getReservation(_classes.get(courseClass));
-				// insert class from first parent into new chromosome's class table
-				n._classes.put(courseClass, reservation.hashCode());
-				// all time-space slots of class are copied
-				for (int j = courseClass.Duration - 1; j >= 0; --j)
-					n._slots[reservation.hashCode() + j].add(courseClass);
-			}
-			else
-			{
-				CourseClass courseClass = parentClasses[i];
-				Reservation reservation = Reservation.getReservation(parent._classes.get(courseClass));
-				// insert class from second parent into new chromosome's class table
-				n._classes.put(courseClass, reservation.hashCode());
-				// all time-space slots of class are copied
-				for (int j = courseClass.Duration - 1; j >= 0; --j)
-					n._slots[reservation.hashCode() + j].add(courseClass);
-			}
+			CourseClass courseClass = classes.get(i);
+			// insert class from first or second parent into new chromosome's class table
+			int reservationIndex = first ? _classes.get(courseClass.Id) : parent._classes.get(courseClass.Id);
+			// all time-space slots of class are copied
+			n.place(courseClass, reservationIndex);
 
 			// crossover point
 			if (cp[i])
@@ -214,23 +297,22 @@ public class Schedule implements Chromosome<Schedule>
 	public Schedule crossover(Schedule parent, Schedule r1, Schedule r2, Schedule r3, float etaCross, float crossoverProbability)
 	{
 		// number of classes
-		int size = _classes.size();
+		int size = _classes.length();
 		int jrand = Configuration.rand(size);
 		
 		// new chromosome object, copy chromosome setup
 		Schedule n = copy(this, true);
 		
 		int nr = _configuration.getNumberOfRooms();
-		CourseClass[] classes = _classes.keySet().toArray(new CourseClass[0]);
-		CourseClass[] parentClasses = parent._classes.keySet().toArray(new CourseClass[0]);
+		List<CourseClass> classes = _configuration.getCourseClasses();
 		for (int i = 0; i < size; ++i)
 		{
+			CourseClass courseClass = classes.get(i);
 			// check probability of crossover operation
 			if (Configuration.rand() % 100 > crossoverProbability || i == jrand) {
-				CourseClass courseClass = classes[i];
-				Reservation reservation1 = Reservation.getReservation(r1.getClasses().get(courseClass));
-				Reservation reservation2 = Reservation.getReservation(r2.getClasses().get(courseClass));
-				Reservation reservation3 = Reservation.getReservation(r3.getClasses().get(courseClass));
+				Reservation reservation1 = _configuration.getReservation(r1._classes.get(courseClass.Id));
+				Reservation reservation2 = _configuration.getReservation(r2._classes.get(courseClass.Id));
+				Reservation reservation3 = _configuration.getReservation(r3._classes.get(courseClass.Id));
 				
 				// determine random position of class				
 				int dur = courseClass.Duration;
@@ -252,24 +334,13 @@ public class Schedule implements Chromosome<Schedule>
 				else if(time >= (Constant.DAY_HOURS - dur))
 					time = Constant.DAY_HOURS - 1 - dur;				
 
-				Reservation reservation = Reservation.getReservation(nr, day, time, room);
+				Reservation reservation = _configuration.getReservation(day, time, room);
 
 				// fill time-space slots, for each hour of class
-				for (int j = courseClass.Duration - 1; j >= 0; --j)
-					n._slots[reservation.hashCode() + j].add(courseClass);
-
-				// insert in class table of chromosome
-				n._classes.put(courseClass, reservation.hashCode());
+				n.place(courseClass, reservation.hashCode());
 			} else {
-				CourseClass courseClass = parentClasses[i];
-				Reservation reservation = Reservation.getReservation(parent._classes.get(courseClass));
-				
-				// all time-space slots of class are copied
-				for (int j = courseClass.Duration - 1; j >= 0; --j)
-					n._slots[reservation.hashCode() + j].add(courseClass);
-				
-				// insert class from second parent into new chromosome's class table
-				n._classes.put(courseClass, reservation.hashCode());
+				// insert class from second parent into new chromosome, all time-space slots of class are copied
+				n.place(courseClass, parent._classes.get(courseClass.Id));
 			}
 		}			
 
@@ -279,34 +350,131 @@ public class Schedule implements Chromosome<Schedule>
 		return n;
 	}
 	
-	private void repair(CourseClass cc1, Integer reservation1_index, Reservation reservation2)
+	private void repair(CourseClass cc1, int reservation1_index, Reservation reservation2)
 	{
 		int dur = cc1.Duration;
 		int nr = _configuration.getNumberOfRooms();
 		
-		if(reservation1_index != null) {
-			for (int j = dur - 1; j >= 0; --j) {
-				// remove class hour from current time-space slot
-				List<CourseClass> cl = _slots[reservation1_index + j];
-				cl.removeIf(cc -> cc == cc1);
-			}
+		if(reservation1_index >= 0) {
+			// remove class hours from current time-space slots
+			displace(cc1, reservation1_index);
+			invalidate(cc1, reservation1_index);
 		}
 				
 		if(reservation2 == null) {			
 			int day = Configuration.rand(0, Constant.DAYS_NUM - 1);
-			int room = Configuration.rand(0, nr - 1);
+			int room = randomRoom(cc1, nr);
 			int time = Configuration.rand(0, (Constant.DAY_HOURS - 1 - dur));				
-			reservation2 = Reservation.getReservation(nr, day, time, room);							
+			reservation2 = _configuration.getReservation(day, time, room);							
 		}
 		
-		for (int j = dur - 1; j >= 0; --j)
-		{
-			// move class hour to new time-space slot
-			_slots[reservation2.hashCode() + j].add(cc1);
+		// move class hours to new time-space slots
+		place(cc1, reservation2.hashCode());
+		invalidate(cc1, reservation2.hashCode());
+	}
+
+	// Returns random room for class
+	// Only rooms with enough seats and computers are chosen if feasible room sampling is enabled and there are such rooms
+	private int randomRoom(CourseClass cc, int nr)
+	{
+		if(_feasibleRoomsOnly) {
+			int[] rooms = _configuration.getIndex().getFeasibleRooms(cc.Id);
+			if(rooms.length > 0)
+				return rooms[Configuration.rand(rooms.length)];
+		}
+		return Configuration.rand(0, nr - 1);
+	}
+
+	// Marks class for re-evaluation
+	private void markDirty(int classId)
+	{
+		if(_dirtyFlags[classId])
+			return;
+		_dirtyFlags[classId] = true;
+		_dirty[_dirtySize++] = classId;
+	}
+
+	// Marks class and all classes which share time-space slots, professor or student groups
+	// with it at specified reservation index for re-evaluation
+	private void invalidate(CourseClass cc, int reservationIndex)
+	{
+		if(!_evaluated)
+			return;
+
+		if(_dirty == null) {
+			_dirty = new int[_classes.length()];
+			_dirtyFlags = new boolean[_classes.length()];
+		}
+
+		int dur = cc.Duration;
+		markDirty(cc.Id);
+
+		// classes in the same room at the same time
+		for (int j = dur - 1; j >= 0; --j) {
+			for (int node = _slots.first(reservationIndex + j); node != 0; node = _slots.next(node))
+				markDirty(_slots.classOf(node));
+		}
+
+		// classes of the same professor or student groups at the same time
+		int hour = getWeekHour(reservationIndex);
+		ConfigurationIndex index = _configuration.getIndex();
+		for (int classId : index.getConflicts().getConflicts(cc.Id)) {
+			int reservationIndex2 = _classes.get(classId);
+			if(reservationIndex2 < 0)
+				continue;
+
+			int hour2 = getWeekHour(reservationIndex2);
+			if(hour2 < hour + dur && hour < hour2 + index.getClassDuration(classId))
+				markDirty(classId);
 		}
+	}
+
+	// Returns hour of week of time-space slot
+	private int getWeekHour(int reservationIndex)
+	{
+		int daySize = Constant.DAY_HOURS * _configuration.getNumberOfRooms();
+		return reservationIndex / daySize * Constant.DAY_HOURS + reservationIndex % Constant.DAY_HOURS;
+	}
+
+	// Inserts class into time-space slots starting at reservation index and into class table
+	private void place(CourseClass cc, int reservationIndex)
+	{
+		int dur = cc.Duration;
+		_slots.add(cc.Id, reservationIndex, dur);
+
+		int hour = getWeekHour(reservationIndex);
+		ConfigurationIndex index = _configuration.getIndex();
+		_professors.add(index.getClassProfessor(cc.Id), hour, dur);
+		for (int group : index.getClassGroups(cc.Id))
+			_groups.add(group, hour, dur);
 
 		// change entry of class table to point to new time-space slots
-		_classes.put(cc1, reservation2.hashCode());
+		_classes.set(cc.Id, reservationIndex);
+		_hash ^= hashKey(cc.Id, reservationIndex);
+	}
+
+	// Removes class from time-space slots starting at reservation index
+	private void displace(CourseClass cc, int reservationIndex)
+	{
+		int dur = cc.Duration;
+		_slots.remove(cc.Id, reservationIndex, dur);
+
+		int hour = getWeekHour(reservationIndex);
+		ConfigurationIndex index = _configuration.getIndex();
+		_professors.remove(index.getClassProfessor(cc.Id), hour, dur);
+		for (int group : index.getClassGroups(cc.Id))
+			_groups.remove(group, hour, dur);
+
+		_hash ^= hashKey(cc.Id, reservationIndex);
+	}
+
+	// Returns pseudo-random key of class placed at time-space slot (SplitMix64 finalizer)
+	private static long hashKey(int classId, int reservationIndex)
+	{
+		long z = ((long) classId << 32 | reservationIndex) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
 	}
 
 	// Performs mutation on chromosome
@@ -317,9 +485,9 @@ public class Schedule implements Chromosome<Schedule>
 			return;
 
 		// number of classes
-		int numberOfClasses = _classes.size();
+		int numberOfClasses = _classes.length();
 
-		CourseClass[] classes = _classes.keySet().toArray(new CourseClass[0]);
+		List<CourseClass> classes = _configuration.getCourseClasses();
 		// move selected number of classes at random position
 		for (int i = mutationSize; i > 0; --i)
 		{
@@ -327,69 +495,157 @@ public class Schedule implements Chromosome<Schedule>
 			int mpos = Configuration.rand() % numberOfClasses;
 
 			// current time-space slot used by class
-			CourseClass cc1 = classes[mpos];
+			CourseClass cc1 = classes.get(mpos);
 			
-			repair(cc1, _classes.get(cc1), null);
+			repair(cc1, _classes.get(cc1.Id), null);
 		}
 
-		calculateFitness();
+		updateFitness();
 	}
 
 	// Calculates fitness value of chromosome
 	public void calculateFitness()
 	{
+		// same class table was evaluated already?
+		if(_fitnessCache != null && loadCached())
+			return;
+
 		// increment value when criteria violation occurs
-		_objectives = new double[Criteria.weights.length];
+		Arrays.fill(_objectives, 0);
+
+		// all flags are overwritten, so shared flags are not copied
+		if(_criteriaShared) {
+			_criteria = new long[_criteria.length];
+			_criteriaShared = false;
+		}
 				
 		// chromosome's score
-		float score = 0;
+		_score = 0;
 
-		int numberOfRooms = _configuration.getNumberOfRooms();
-		int daySize = Constant.DAY_HOURS * numberOfRooms;
-
-		int ci = 0;
 		// check criterias and calculate scores for each class in schedule
-		for (CourseClass cc : _classes.keySet())
+		for (int classId = 0; classId < _classes.length(); ++classId)
 		{
-			// coordinate of time-space slot
-			Reservation reservation = Reservation.getReservation(_classes.get(cc));
-			int day = reservation.getDay();
-			int time = reservation.getTime();
-			int room = reservation.getRoom();
+			evaluate(classId);
+			accumulate(classId * Criteria.weights.length, 1);
+		}
 
-			int dur = cc.Duration;
+		// calculate fitess value based on score
+		_fitness = _score / (_classes.length() * Criteria.weights.length);
+		_evaluated = true;
+		clearDirty();
 
-			boolean ro = Criteria.isRoomOverlapped(_slots, reservation, dur);
-			
-			// on room overlapping
-			_criteria[ci + 0] = !ro;			
-			
-			Room r = _configuration.getRoomById(room);
-			_criteria[ci + 1] = Criteria.isSeatEnough(r, cc);
+		if(_fitnessCache != null) {
+			_criteriaShared = true;
+			_fitnessCache.put(_hash, _classes.copy(), _score, _objectives.clone(), _criteria);
+		}
+	}
 
-			_criteria[ci + 2] = Criteria.isComputerEnough(r, cc);
+	// Takes fitness of class table from cache, returns FALSE if class table isn't there
+	private boolean loadCached()
+	{
+		FitnessCache.Entry entry = _fitnessCache.get(_hash, _classes);
+		if(entry == null)
+			return false;
+
+		_score = entry.score;
+		System.arraycopy(entry.objectives, 0, _objectives, 0, _objectives.length);
+		_criteria = entry.criteria;
+		_criteriaShared = true;
+		_fitness = _score / (_classes.length() * Criteria.weights.length);
+		_evaluated = true;
+		clearDirty();
+		return true;
+	}
 
-			boolean[] total_overlap = Criteria.isOverlappedProfStudentGrp(_slots, cc, numberOfRooms, day * daySize + time);
+	// Updates fitness value of chromosome by re-evaluating only classes affected by last moves
+	// Result isn't stored to cache, only full evaluations are
+	private void updateFitness()
+	{
+		// too many classes affected, evaluate whole chromosome
+		if(!_evaluated || _dirtySize * 2 > _classes.length()) {
+			calculateFitness();
+			return;
+		}
 
-			// professors have no overlapping classes?
-			_criteria[ci + 3] = !total_overlap[0];
+		if(_fitnessCache != null && loadCached())
+			return;
 
-			// student groups has no overlapping classes?
-			_criteria[ci + 4] = !total_overlap[1];
-			
-			for(int i = 0; i < _objectives.length; ++i) {
-				if(_criteria[ci + i])
-					++score;
-				else {
-					score += Criteria.weights[i];
-					_objectives[i] += Criteria.weights[i] > 0 ? 1 : 2;
-				}
+		if(_criteriaShared) {
+			_criteria = _criteria.clone();
+			_criteriaShared = false;
+		}
+
+		for (int i = 0; i < _dirtySize; ++i) {
+			int classId = _dirty[i];
+			int ci = classId * Criteria.weights.length;
+			accumulate(ci, -1);
+			evaluate(classId);
+			accumulate(ci, 1);
+		}
+
+		_fitness = _score / (_classes.length() * Criteria.weights.length);
+		clearDirty();
+	}
+
+	private void clearDirty()
+	{
+		for (int i = 0; i < _dirtySize; ++i)
+			_dirtyFlags[_dirty[i]] = false;
+		_dirtySize = 0;
+	}
+
+	// Adds (sign = 1) or removes (sign = -1) score and objectives of class whose requirement flags start at ci
+	private void accumulate(int ci, int sign)
+	{
+		for(int i = 0; i < _objectives.length; ++i) {
+			if(getCriteria(ci + i))
+				_score += sign;
+			else {
+				_score += sign * Criteria.weights[i];
+				_objectives[i] += sign * (Criteria.weights[i] > 0 ? 1 : 2);
 			}
-			ci += Criteria.weights.length;
 		}
+	}
 
-		// calculate fitess value based on score
-		_fitness = score / _criteria.length;		
+	// Checks criterias of class and sets its flags of requirements satisfaction
+	private void evaluate(int classId)
+	{
+		int ci = classId * Criteria.weights.length;
+
+		// coordinate of time-space slot
+		int reservationIndex = _classes.get(classId);
+		int room = reservationIndex % (Constant.DAY_HOURS * _configuration.getNumberOfRooms()) / Constant.DAY_HOURS;
+
+		ConfigurationIndex index = _configuration.getIndex();
+		int dur = index.getClassDuration(classId);
+
+		boolean ro = Criteria.isRoomOverlapped(_slots, reservationIndex, dur);
+		
+		// on room overlapping
+		setCriteria(ci + 0, !ro);
+		
+		setCriteria(ci + 1, index.isSeatEnough(classId, room));
+
+		setCriteria(ci + 2, index.isComputerEnough(classId, room));
+
+		int professor = index.getClassProfessor(classId);
+		int[] groups = index.getClassGroups(classId);
+		int total_overlap = Criteria.isOverlappedProfStudentGrp(_professors, _groups, professor, groups, getWeekHour(reservationIndex), dur);
+
+		// professors have no overlapping classes?
+		setCriteria(ci + 3, (total_overlap & Criteria.PROFESSOR_OVERLAP) == 0);
+
+		// student groups has no overlapping classes?
+		setCriteria(ci + 4, (total_overlap & Criteria.GROUPS_OVERLAP) == 0);
+	}
+
+	// Sets flag of class requirement satisfaction
+	private void setCriteria(int index, boolean value)
+	{
+		if(value)
+			_criteria[index >>> 6] |= 1L << index;
+		else
+			_criteria[index >>> 6] &= ~(1L << index);
 	}
 
 	// Returns fitness value of chromosome
@@ -397,24 +653,47 @@ public class Schedule implements Chromosome<Schedule>
 
 	public Configuration getConfiguration() { return _configuration; }
 
-	// Returns reference to table of classes
-	public Map<CourseClass, Integer> getClasses() { return _classes; }
+	// Returns TRUE if random placement chooses only rooms with enough seats and computers for class
+	public boolean isFeasibleRoomsOnly() { return _feasibleRoomsOnly; }
+
+	// Returns cache of evaluated class tables, NULL if it is not used
+	public FitnessCache getFitnessCache() { return _fitnessCache; }
 
-	// Returns array of flags of class requirements satisfaction
-	public boolean[] getCriteria() { return _criteria; }
+	// Sets cache which is consulted before fitness is calculated or updated, NULL disables caching
+	// chromosomes made from this one use the same cache
+	// Each lookup takes lock of cache and each missed full evaluation stores copies of class table and objectives,
+	// so cache pays off only when the same class tables are evaluated often
+	public void setFitnessCache(FitnessCache fitnessCache) { _fitnessCache = fitnessCache; }
+
+	// Returns hash of class table, equal class tables have equal hashes
+	public long getHash() { return _hash; }
+
+	// Enables or disables choosing only rooms with enough seats and computers for class in random placement,
+	// chromosomes made from this one inherit the setting
+	public void setFeasibleRoomsOnly(boolean feasibleRoomsOnly) { _feasibleRoomsOnly = feasibleRoomsOnly; }
+
+	// Returns read-only view of table of classes
+	public Map<CourseClass, Integer> getClasses()
+	{
+		Map<CourseClass, Integer> classes = new LinkedHashMap<>();
+		for (CourseClass cc : _configuration.getCourseClasses())
+			classes.put(cc, _classes.get(cc.Id) < 0 ? null : _classes.get(cc.Id));
+		return Collections.unmodifiableMap(classes);
+	}
+
+	// Returns flag of class requirement satisfaction, flags of class with ID i start at index i * Criteria.weights.length
+	public boolean getCriteria(int index) { return (_criteria[index >>> 6] & (1L << index)) != 0; }
 
 	// Return reference to array of time-space slots
-	public List<CourseClass>[] getSlots() { return _slots; }
+	public SlotTable getSlots() { return _slots; }
 	
 	@Override
 	public int getDifference(Schedule other)
 	{
-		boolean[] criteria = other.getCriteria();
+		long[] criteria = other._criteria;
 		int val = 0;
-		for(int i = 0; i < _criteria.length && i < criteria.length; ++i) {
-			if(_criteria[i] ^ criteria[i])
-				++val;
-		}
+		for(int i = 0; i < _criteria.length && i < criteria.length; ++i)
+			val += Long.bitCount(_criteria[i] ^ criteria[i]);
 		return val;
 	}
 
@@ -441,35 +720,42 @@ public class Schedule implements Chromosome<Schedule>
 	@Override
 	public void extractPositions(float[] positions) {
 		int i = 0;
-		for (CourseClass cc : _classes.keySet())
+		for (CourseClass cc : _configuration.getCourseClasses())
 		{
-			Reservation reservation = Reservation.getReservation(_classes.get(cc));
+			Reservation reservation = _configuration.getReservation(_classes.get(cc.Id));
 			positions[i++] = reservation.getDay();
 			positions[i++] = reservation.getRoom();
 			positions[i++] = reservation.getTime();
 		}
 	}
 	
+	@Override
+	public void extractGenome(int[] genome, int offset) {
+		for (int i = 0; i < _classes.length(); ++i)
+			genome[offset + i] = _classes.get(i);
+	}
+	
 	@Override
 	public void updatePositions(float[] positions) {
 		int nr = _configuration.getNumberOfRooms();
 		int i = 0;
-		for (CourseClass cc : _classes.keySet())
+		for (CourseClass cc : _configuration.getCourseClasses())
 		{
 			int dur = cc.Duration;
 			int day = Math.abs((int) positions[i] % Constant.DAYS_NUM);			
 			int room = Math.abs((int) positions[i + 1] % nr);			
 			int time = Math.abs((int) positions[i + 2] % (Constant.DAY_HOURS - dur));
 			
-			Reservation reservation2 = Reservation.getReservation(nr, day, time, room);
-			repair(cc, _classes.get(cc), reservation2);
+			Reservation reservation2 = _configuration.getReservation(day, time, room);
+			if(_classes.get(cc.Id) != reservation2.hashCode())
+				repair(cc, _classes.get(cc.Id), reservation2);
 			
 			positions[i++] = reservation2.getDay();
 			positions[i++] = reservation2.getRoom();
 			positions[i++] = reservation2.getTime();
 		}
 
-		calculateFitness();
+		updateFitness();
 	}
 	
 	@Override
@@ -487,9 +773,27 @@ public class Schedule implements Chromosome<Schedule>
 		return _objectives;
 	}
 
+	// Converted objectives are copied only by clone, offspring copied from parent get their own ones when they are niched
+	// so parents may be copied while NSGA-III niching changes their converted objectives
 	@Override
 	public Schedule clone() {
-		return copy(this, false);
+		Schedule n = copy(this, false);
+		if(_convertedObjectives != null)
+			n._convertedObjectives = _convertedObjectives.clone();
+		return n;
+	}
+	
+	@Override
+	public void setPool(ChromosomePool<Schedule> pool) {
+		_pool = pool;
+	}
+	
+	@Override
+	public void recycle() {
+		if(_pool == null || _recycled)
+			return;
+		_recycled = true;
+		_pool.release(this);
 	}
 	
 	@Override
@@ -0,0 +1,114 @@
+package hk.edu.gaSchedule.model;
+
+// Time-space slots of chromosome stored in primitive arrays
+// Each hour of each class is a node of intrusive doubly linked list of the slot it occupies
+// Arrays are shared with copies page by page until one of them changes
+// Dense table keeps entry for every slot, sparse table keeps only occupied slots,
+// so its size depends on number of classes rather than number of rooms
+public abstract class SlotTable
+{
+	// Slots are stored sparsely when there are more than SPARSE_RATIO slots per hour of classes
+	public static final int SPARSE_RATIO = 8;
+
+	// Links between nodes in the same slot, 0 terminates list
+	private final CowIntArray _next;
+	private final CowIntArray _prev;
+
+	// Nodes of classes, node of hour h of class is getClassNode(class) + h
+	private final ConfigurationIndex _index;
+
+	// Number of time-space slots
+	private final int _size;
+
+	protected SlotTable(Configuration configuration)
+	{
+		_size = Constant.DAYS_NUM * Constant.DAY_HOURS * configuration.getNumberOfRooms();
+		_index = configuration.getIndex();
+		_next = new CowIntArray(_index.getNumberOfNodes());
+		_prev = new CowIntArray(_index.getNumberOfNodes());
+	}
+
+	protected SlotTable(SlotTable c)
+	{
+		_size = c._size;
+		_index = c._index;
+		_next = c._next.copy();
+		_prev = c._prev.copy();
+	}
+
+	// Initializes empty slots for configuration, sparse or dense depending on number of rooms and classes
+	public static SlotTable create(Configuration configuration)
+	{
+		int size = Constant.DAYS_NUM * Constant.DAY_HOURS * configuration.getNumberOfRooms();
+		int classHours = configuration.getIndex().getNumberOfNodes() - 1;
+		return create(configuration, (long) size > (long) SPARSE_RATIO * classHours);
+	}
+
+	// Initializes empty sparse or dense slots for configuration
+	public static SlotTable create(Configuration configuration, boolean sparse)
+	{
+		if (sparse)
+			return new SparseSlotTable(configuration);
+		return new DenseSlotTable(configuration);
+	}
+
+	// Returns copy of slots, changes of copy are not visible in this slots and vice versa
+	// Takes constant time, pages of arrays are copied on first change
+	public abstract SlotTable copy();
+
+	// Removes all classes from slots, links of nodes are overwritten when they are inserted again
+	public abstract void clear();
+
+	// Returns TRUE if only occupied slots are stored
+	public abstract boolean isSparse();
+
+	// Increments number of classes in slot and makes node its first node, returns previous first node
+	protected abstract int push(int slot, int node);
+
+	// Decrements number of classes in slot, head is new first node of slot or -1 if first node doesn't change
+	protected abstract void pop(int slot, int head);
+
+	// Returns number of classes which occupy slot
+	public abstract int getCount(int slot);
+
+	// Returns first node of slot, 0 if slot is empty
+	public abstract int first(int slot);
+
+	// Inserts all hours of class starting at specified slot
+	public void add(int classId, int slot, int dur)
+	{
+		int node = _index.getClassNode(classId);
+		for (int i = 0; i < dur; ++i, ++node, ++slot)
+		{
+			int head = push(slot, node);
+			_next.set(node, head);
+			_prev.set(node, 0);
+			if (head != 0)
+				_prev.set(head, node);
+		}
+	}
+
+	// Removes all hours of class starting at specified slot
+	public void remove(int classId, int slot, int dur)
+	{
+		int node = _index.getClassNode(classId);
+		for (int i = 0; i < dur; ++i, ++node, ++slot)
+		{
+			int next = _next.get(node), prev = _prev.get(node);
+			if (prev != 0)
+				_next.set(prev, next);
+			if (next != 0)
+				_prev.set(next, prev);
+			pop(slot, prev != 0 ? -1 : next);
+		}
+	}
+
+	// Returns node which follows specified node in the same slot, 0 if there is none
+	public int next(int node) { return _next.get(node); }
+
+	// Returns ID of class which owns node
+	public int classOf(int node) { return _index.getNodeClass(node); }
+
+	// Returns number of time-space slots
+	public int size() { return _size; }
+}
@@ -0,0 +1,140 @@
+package hk.edu.gaSchedule.model;
+
+// Time-space slots which keeps only occupied slots in open-addressing hash table with linear probing
+// Number of occupied slots never exceeds number of hours of classes, so table is sized once
+// for load factor at most 1/2 and never grows
+final class SparseSlotTable extends SlotTable
+{
+	// Occupied slot of each entry plus one, 0 marks empty entry
+	private final CowIntArray _keys;
+
+	// Number of classes occupying slot of each entry
+	private final CowIntArray _count;
+
+	// First node in slot of each entry
+	private final CowIntArray _head;
+
+	private final int _mask;
+
+	// Number of bits used for index of entry
+	private final int _bits;
+
+	SparseSlotTable(Configuration configuration)
+	{
+		super(configuration);
+		int classHours = Math.max(1, configuration.getIndex().getNumberOfNodes() - 1);
+		int bits = 1;
+		while ((1 << bits) < 2 * classHours)
+			++bits;
+		_bits = bits;
+		_mask = (1 << bits) - 1;
+		_keys = new CowIntArray(1 << bits);
+		_count = new CowIntArray(1 << bits);
+		_head = new CowIntArray(1 << bits);
+	}
+
+	private SparseSlotTable(SparseSlotTable c)
+	{
+		super(c);
+		_bits = c._bits;
+		_mask = c._mask;
+		_keys = c._keys.copy();
+		_count = c._count.copy();
+		_head = c._head.copy();
+	}
+
+	@Override
+	public SlotTable copy()
+	{
+		return new SparseSlotTable(this);
+	}
+
+	@Override
+	public void clear()
+	{
+		_keys.fill(0);
+		_count.fill(0);
+		_head.fill(0);
+	}
+
+	@Override
+	public boolean isSparse() { return true; }
+
+	// Returns preferred entry of slot (Fibonacci hashing)
+	int home(int slot)
+	{
+		return (slot * 0x9E3779B9) >>> (32 - _bits);
+	}
+
+	// Returns entry of slot, or empty entry where it would be inserted
+	private int find(int slot)
+	{
+		int key = slot + 1;
+		int e = home(slot);
+		for (int k = _keys.get(e); k != 0 && k != key; k = _keys.get(e))
+			e = (e + 1) & _mask;
+		return e;
+	}
+
+	// Removes entry and shifts following entries of the same probe sequence back, so no tombstones are needed
+	private void delete(int e)
+	{
+		for (int j = (e + 1) & _mask; ; j = (j + 1) & _mask)
+		{
+			int key = _keys.get(j);
+			if (key == 0)
+				break;
+
+			// entry can move to e if its home position is not cyclically within (e, j]
+			int h = home(key - 1);
+			if (e <= j ? (h <= e || h > j) : (h <= e && h > j))
+			{
+				_keys.set(e, key);
+				_count.set(e, _count.get(j));
+				_head.set(e, _head.get(j));
+				e = j;
+			}
+		}
+		_keys.set(e, 0);
+		_count.set(e, 0);
+		_head.set(e, 0);
+	}
+
+	@Override
+	protected int push(int slot, int node)
+	{
+		int e = find(slot);
+		int head = 0;
+		if (_keys.get(e) == 0)
+			_keys.set(e, slot + 1);
+		else
+			head = _head.get(e);
+		_head.set(e, node);
+		_count.add(e, 1);
+		return head;
+	}
+
+	@Override
+	protected void pop(int slot, int head)
+	{
+		int e = find(slot);
+		if (_count.add(e, -1) == 0)
+			delete(e);
+		else if (head >= 0)
+			_head.set(e, head);
+	}
+
+	@Override
+	public int getCount(int slot)
+	{
+		int e = find(slot);
+		return _keys.get(e) == 0 ? 0 : _count.get(e);
+	}
+
+	@Override
+	public int first(int slot)
+	{
+		int e = find(slot);
+		return _keys.get(e) == 0 ? 0 : _head.get(e);
+	}
+}
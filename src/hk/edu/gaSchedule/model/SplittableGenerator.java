@@ -0,0 +1,67 @@
+package hk.edu.gaSchedule.model;
+
+import java.util.SplittableRandom;
+
+// Default generator built on SplittableRandom which doesn't synchronize and splits into independent streams
+public final class SplittableGenerator implements RandomGenerator
+{
+	private final SplittableRandom _random;
+
+	// Second value generated by polar method, NaN if there is none
+	private double _nextGaussian = Double.NaN;
+
+	public SplittableGenerator(long seed)
+	{
+		this(new SplittableRandom(seed));
+	}
+
+	private SplittableGenerator(SplittableRandom random)
+	{
+		_random = random;
+	}
+
+	@Override
+	public int nextInt(int bound)
+	{
+		return _random.nextInt(bound);
+	}
+
+	@Override
+	public long nextLong()
+	{
+		return _random.nextLong();
+	}
+
+	@Override
+	public double nextDouble()
+	{
+		return _random.nextDouble();
+	}
+
+	@Override
+	public double nextGaussian()
+	{
+		if (!Double.isNaN(_nextGaussian)) {
+			double value = _nextGaussian;
+			_nextGaussian = Double.NaN;
+			return value;
+		}
+
+		// Marsaglia polar method, same as java.util.Random
+		double v1, v2, s;
+		do {
+			v1 = 2 * _random.nextDouble() - 1;
+			v2 = 2 * _random.nextDouble() - 1;
+			s = v1 * v1 + v2 * v2;
+		} while (s >= 1 || s == 0);
+		double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+		_nextGaussian = v2 * multiplier;
+		return v1 * multiplier;
+	}
+
+	@Override
+	public RandomGenerator split()
+	{
+		return new SplittableGenerator(_random.split());
+	}
+}
@@ -0,0 +1,91 @@
+package hk.edu.gaSchedule.model;
+
+// Weekly occupancy of professors or student groups
+// Keeps number of classes per entity and hour of week, and bit mask of hours
+// where entity attends more than one class, so overlap check is a few AND operations
+// Arrays are shared with copies page by page until one of them changes
+public final class WeeklyOccupancy
+{
+	// Number of hours in week
+	public static final int WEEK_HOURS = Constant.DAYS_NUM * Constant.DAY_HOURS;
+
+	// Number of 64-bit words used by mask of one entity
+	private static final int WORDS = (WEEK_HOURS + 63) >>> 6;
+
+	// Number of classes of each entity at each hour of week
+	private final CowIntArray _count;
+
+	// Hours of week in which entity has more than one class
+	private final CowLongArray _conflicts;
+
+	// Initializes occupancy of specified number of entities
+	public WeeklyOccupancy(int numberOfEntities)
+	{
+		_count = new CowIntArray(numberOfEntities * WEEK_HOURS);
+		_conflicts = new CowLongArray(numberOfEntities * WORDS);
+	}
+
+	private WeeklyOccupancy(WeeklyOccupancy c)
+	{
+		_count = c._count.copy();
+		_conflicts = c._conflicts.copy();
+	}
+
+	// Returns copy of occupancy, changes of copy are not visible in this occupancy and vice versa
+	// Takes constant time, pages of arrays are copied on first change
+	public WeeklyOccupancy copy()
+	{
+		return new WeeklyOccupancy(this);
+	}
+
+	// Releases all entities for whole week
+	public void clear()
+	{
+		_count.fill(0);
+		_conflicts.fill(0);
+	}
+
+	// Marks entity busy for dur hours starting at specified hour of week
+	public void add(int entity, int hour, int dur)
+	{
+		int c = entity * WEEK_HOURS + hour;
+		for (int i = 0; i < dur; ++i, ++c, ++hour)
+		{
+			if (_count.add(c, 1) == 2)
+			{
+				int w = entity * WORDS + (hour >>> 6);
+				_conflicts.set(w, _conflicts.get(w) | 1L << hour);
+			}
+		}
+	}
+
+	// Releases entity for dur hours starting at specified hour of week
+	public void remove(int entity, int hour, int dur)
+	{
+		int c = entity * WEEK_HOURS + hour;
+		for (int i = 0; i < dur; ++i, ++c, ++hour)
+		{
+			if (_count.add(c, -1) == 1)
+			{
+				int w = entity * WORDS + (hour >>> 6);
+				_conflicts.set(w, _conflicts.get(w) & ~(1L << hour));
+			}
+		}
+	}
+
+	// Returns TRUE if entity attends more than one class in any of dur hours starting at specified hour of week
+	public boolean overlaps(int entity, int hour, int dur)
+	{
+		int base = entity * WORDS;
+		for (int end = hour + dur; hour < end; )
+		{
+			int bit = hour & 63;
+			int n = Math.min(end - hour, 64 - bit);
+			long mask = (n == 64 ? -1L : (1L << n) - 1) << bit;
+			if ((_conflicts.get(base + (hour >>> 6)) & mask) != 0)
+				return true;
+			hour += n;
+		}
+		return false;
+	}
+}
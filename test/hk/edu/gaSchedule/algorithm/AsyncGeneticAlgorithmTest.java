@@ -0,0 +1,113 @@
+package hk.edu.gaSchedule.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.Schedule;
+
+public class AsyncGeneticAlgorithmTest
+{
+	private static final int GENERATIONS = 20;
+
+	private static final int IMMIGRANTS = 20;
+
+	private static Configuration _configuration;
+
+	@BeforeClass
+	public static void parse() throws Exception
+	{
+		_configuration = new Configuration();
+		_configuration.parse(new File("src/GaSchedule.json"));
+	}
+
+	// Runs algorithm until listener stops it and returns number of generations it has completed
+	private static int run(AsyncGeneticAlgorithm<Schedule> algorithm)
+	{
+		AtomicInteger generations = new AtomicInteger();
+		algorithm.setGenerationListener((generation, best, immigrants) -> generations.incrementAndGet() < GENERATIONS);
+
+		ForkJoinPool executor = new ForkJoinPool(4);
+		try {
+			algorithm.setExecutor(executor);
+			algorithm.run(100, 2.0);
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertNotNull(algorithm.getResult());
+		return generations.get();
+	}
+
+	// Best chromosome group as large as population and no offspring by generation are clamped
+	@Test(timeout = 60000)
+	public void completesGenerationsOfSmallPopulation()
+	{
+		Configuration.setSeed(1);
+		AsyncGeneticAlgorithm<Schedule> algorithm = new AsyncGeneticAlgorithm<>(new Schedule(_configuration), 3, 0, 5);
+		algorithm._numberOfCrossoverPoints = 2;
+		algorithm._mutationSize = 2;
+		algorithm._crossoverProbability = 80;
+		algorithm._mutationProbability = 3;
+		assertEquals(GENERATIONS, run(algorithm));
+	}
+
+	@Test(timeout = 60000)
+	public void completesGenerations()
+	{
+		Configuration.setSeed(2);
+		assertEquals(GENERATIONS, run(new AsyncGeneticAlgorithm<>(new Schedule(_configuration), 2, 2, 80, 3)));
+	}
+
+	// Immigrants join best chromosome group while workers insert offspring
+	@Test(timeout = 60000)
+	public void immigrantsInBestAreInPopulation()
+	{
+		Configuration.setSeed(3);
+		// small population keeps workers replacing slots which immigrants are inserted into
+		AsyncGeneticAlgorithm<Schedule> algorithm = new AsyncGeneticAlgorithm<>(new Schedule(_configuration), 12, 8, 4);
+		algorithm._numberOfCrossoverPoints = 2;
+		algorithm._mutationSize = 2;
+		algorithm._crossoverProbability = 80;
+		algorithm._mutationProbability = 3;
+		AtomicInteger generations = new AtomicInteger();
+		algorithm.setGenerationListener((generation, best, immigrants) -> {
+			immigrants.add(best.clone());
+			for (int i = 0; i < IMMIGRANTS; ++i) {
+				Schedule mutant = best.clone();
+				mutant.mutation(1, 100);
+				immigrants.add(mutant);
+			}
+			return generations.incrementAndGet() < GENERATIONS;
+		});
+
+		ForkJoinPool executor = new ForkJoinPool(4);
+		try {
+			algorithm.setExecutor(executor);
+			algorithm.run(100, 2.0);
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		Set<Schedule> population = Collections.newSetFromMap(new IdentityHashMap<>());
+		Collections.addAll(population, algorithm._chromosomes);
+		Set<Schedule> best = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Schedule chromosome : algorithm.getBest()) {
+			assertTrue("best chromosome out of population", population.contains(chromosome));
+			assertTrue("best chromosome is repeated", best.add(chromosome));
+		}
+		assertEquals(GENERATIONS, generations.get());
+	}
+}
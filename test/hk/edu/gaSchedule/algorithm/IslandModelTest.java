@@ -0,0 +1,76 @@
+package hk.edu.gaSchedule.algorithm;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.Schedule;
+
+public class IslandModelTest
+{
+	private static final int GENERATIONS = 30;
+
+	private static Configuration _configuration;
+
+	@BeforeClass
+	public static void parse() throws Exception
+	{
+		_configuration = new Configuration();
+		_configuration.parse(new File("src/GaSchedule.json"));
+	}
+
+	// Island which stops itself after fixed number of generations, so other islands don't stop it at random generation
+	private static final class Limited implements Algorithm<Schedule>
+	{
+		private final Algorithm<Schedule> _algorithm;
+
+		private GenerationListener<Schedule> _listener;
+
+		Limited(Algorithm<Schedule> algorithm)
+		{
+			_algorithm = algorithm;
+		}
+
+		public void run(int maxRepeat, double minFitness) { _algorithm.run(maxRepeat, minFitness); }
+
+		public Schedule getResult() { return _algorithm.getResult(); }
+
+		public GenerationListener<Schedule> getGenerationListener() { return _listener; }
+
+		public void setGenerationListener(GenerationListener<Schedule> listener)
+		{
+			_listener = listener;
+			_algorithm.setGenerationListener(listener == null ? null
+				: (generation, best, immigrants) -> listener.onGeneration(generation, best, immigrants) && generation < GENERATIONS);
+		}
+	}
+
+	// Runs seeded islands without migration and returns genomes of their best chromosomes
+	private static int[][] run(long seed)
+	{
+		Schedule prototype = new Schedule(_configuration);
+		IslandModel<Schedule> model = new IslandModel<>(Arrays.asList(new Limited(new NsgaIII<>(prototype, 2, 2, 80, 3)),
+			new Limited(new GeneticAlgorithm<>(prototype, 2, 2, 80, 3))), GENERATIONS + 1, IslandModel.Topology.RING);
+
+		// islands reform and reseed their streams whenever best chromosome doesn't improve
+		Configuration.setSeed(seed);
+		model.run(0, 2.0);
+
+		int[][] genomes = new int[model.getIslands().size()][_configuration.getNumberOfCourseClasses()];
+		for (int i = 0; i < genomes.length; ++i)
+			model.getIslands().get(i).getResult().extractGenome(genomes[i], 0);
+		return genomes;
+	}
+
+	@Test
+	public void seededIslandsRepeatTheirRuns()
+	{
+		for (long seed = 1; seed <= 3; ++seed)
+			assertArrayEquals(run(seed), run(seed));
+	}
+}
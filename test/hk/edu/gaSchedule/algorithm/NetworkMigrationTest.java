@@ -0,0 +1,116 @@
+package hk.edu.gaSchedule.algorithm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.Schedule;
+
+public class NetworkMigrationTest
+{
+	private static final long TIMEOUT = 10000;
+
+	private static Configuration _configuration;
+
+	@BeforeClass
+	public static void parse() throws Exception
+	{
+		_configuration = new Configuration();
+		_configuration.parse(new File("src/GaSchedule.json"));
+	}
+
+	// Waits until condition holds, fails if it doesn't hold in time
+	private static void await(BooleanSupplier condition) throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (!condition.getAsBoolean()) {
+			assertTrue("condition didn't hold in time", System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	// Connects to island and sends header followed by migrant, both are written at once when stream is closed
+	private static void sendRaw(int port, int magic, int[] genome, double[] objectives) throws Exception
+	{
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+			output.writeInt(magic);
+			output.writeInt(genome.length);
+			output.writeInt(objectives.length);
+			for (int gene : genome)
+				output.writeInt(gene);
+			for (double objective : objectives)
+				output.writeDouble(objective);
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void migrantArrivesOverLoopback() throws Exception
+	{
+		Configuration.setSeed(1);
+		Schedule prototype = new Schedule(_configuration);
+		Schedule best = prototype.makeNewFromPrototype();
+
+		try (NetworkMigration<Schedule> receiver = new NetworkMigration<>(prototype, 0, Collections.emptyList(), 1);
+			NetworkMigration<Schedule> sender = new NetworkMigration<>(prototype, 0,
+				Collections.singletonList(new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getPort())), 1)) {
+			sender.onGeneration(1, best, new ArrayList<>());
+			await(() -> receiver.getReceived() == 1);
+
+			List<Schedule> immigrants = new ArrayList<>();
+			receiver.onGeneration(1, best, immigrants);
+			assertEquals(1, immigrants.size());
+			assertEquals(1, sender.getSent());
+			assertEquals(0, receiver.getRejected());
+
+			int[] expected = new int[_configuration.getNumberOfCourseClasses()], actual = new int[expected.length];
+			best.extractGenome(expected, 0);
+			immigrants.get(0).extractGenome(actual, 0);
+			assertArrayEquals(expected, actual);
+			assertArrayEquals(best.getObjectives(), immigrants.get(0).getObjectives(), 0);
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void invalidMigrantsAreRejected() throws Exception
+	{
+		Configuration.setSeed(2);
+		Schedule prototype = new Schedule(_configuration);
+		Schedule best = prototype.makeNewFromPrototype();
+		int[] genome = new int[_configuration.getNumberOfCourseClasses()];
+		best.extractGenome(genome, 0);
+
+		try (NetworkMigration<Schedule> receiver = new NetworkMigration<>(prototype, 0, Collections.emptyList(), 1)) {
+			// header of other chromosomes
+			sendRaw(receiver.getPort(), NetworkMigration.MAGIC + 1, genome, best.getObjectives());
+			await(() -> receiver.getRejected() == 1);
+			assertEquals(0, receiver.getReceived());
+
+			// objectives which don't match genome
+			double[] tampered = best.getObjectives().clone();
+			tampered[0] += 1;
+			sendRaw(receiver.getPort(), NetworkMigration.MAGIC, genome, tampered);
+			await(() -> receiver.getReceived() == 1);
+
+			List<Schedule> immigrants = new ArrayList<>();
+			receiver.onGeneration(1, best, immigrants);
+			assertTrue(immigrants.isEmpty());
+			assertEquals(2, receiver.getRejected());
+		}
+	}
+}
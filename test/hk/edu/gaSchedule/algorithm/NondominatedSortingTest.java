@@ -0,0 +1,82 @@
+package hk.edu.gaSchedule.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.Schedule;
+
+public class NondominatedSortingTest
+{
+	// Population large enough to be sorted in parallel
+	private static final int SIZE = NondominatedSorting.PARALLEL_THRESHOLD + 100;
+
+	private static Configuration _configuration;
+
+	private static ForkJoinPool _executor;
+
+	@BeforeClass
+	public static void parse() throws Exception
+	{
+		_configuration = new Configuration();
+		_configuration.parse(new File("src/GaSchedule.json"));
+		_executor = new ForkJoinPool(4);
+	}
+
+	@AfterClass
+	public static void shutdown()
+	{
+		_executor.shutdown();
+	}
+
+	// Returns population of random chromosomes
+	private static List<Schedule> population(long seed)
+	{
+		Configuration.setSeed(seed);
+		Schedule prototype = new Schedule(_configuration);
+		List<Schedule> population = new ArrayList<>();
+		for (int i = 0; i < SIZE; ++i)
+			population.add(prototype.makeNewFromPrototype());
+		return population;
+	}
+
+	@Test
+	public void nsgaIIParallelSortEqualsSequentialSort()
+	{
+		for (long seed = 1; seed <= 2; ++seed) {
+			List<Schedule> population = population(seed);
+			NsgaII<Schedule> sequential = new NsgaII<>(population.get(0), 2, 2, 80, 3), parallel = new NsgaII<>(population.get(0), 2, 2, 80, 3);
+			// sorting takes population twice as large as the algorithm's one
+			sequential._populationSize = parallel._populationSize = SIZE / 2;
+			parallel.setExecutor(_executor);
+
+			List<Set<Integer> > expected = sequential.nonDominatedSorting(population);
+			assertTrue(expected.size() > 1);
+			assertEquals(expected, parallel.nonDominatedSorting(population));
+		}
+	}
+
+	@Test
+	public void nsgaIIIParallelSortEqualsSequentialSort()
+	{
+		for (long seed = 1; seed <= 2; ++seed) {
+			List<Schedule> population = population(seed);
+			NsgaIII<Schedule> sequential = new NsgaIII<>(population.get(0), 2, 2, 80, 3), parallel = new NsgaIII<>(population.get(0), 2, 2, 80, 3);
+			parallel.setExecutor(_executor);
+
+			List<List<Integer> > expected = sequential.nondominatedSort(population);
+			assertTrue(expected.size() > 1);
+			assertEquals(expected, parallel.nondominatedSort(population));
+		}
+	}
+}
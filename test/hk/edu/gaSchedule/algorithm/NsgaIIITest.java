@@ -0,0 +1,112 @@
+package hk.edu.gaSchedule.algorithm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.Schedule;
+
+public class NsgaIIITest
+{
+	private static final int GENERATIONS = 30;
+
+	private static Configuration _configuration;
+
+	@BeforeClass
+	public static void parse() throws Exception
+	{
+		_configuration = new Configuration();
+		_configuration.parse(new File("src/GaSchedule.json"));
+	}
+
+	// Runs seeded algorithm for fixed number of generations and returns genome of its best chromosome
+	static int[] run(NsgaIII<Schedule> algorithm, long seed)
+	{
+		Configuration.setSeed(seed);
+		algorithm.setGenerationListener((generation, best, immigrants) -> generation < GENERATIONS);
+		algorithm.run(Integer.MAX_VALUE, 2.0);
+
+		Schedule result = algorithm.getResult();
+		int[] genome = new int[_configuration.getNumberOfCourseClasses()];
+		result.extractGenome(genome, 0);
+		return genome;
+	}
+
+	static NsgaIII<Schedule> create()
+	{
+		return new NsgaIII<>(new Schedule(_configuration), 2, 2, 80, 3);
+	}
+
+	@Test
+	public void parallelRunEqualsSequentialRun()
+	{
+		ForkJoinPool executor = new ForkJoinPool(4);
+		try {
+			for (long seed = 1; seed <= 2; ++seed) {
+				NsgaIII<Schedule> sequential = create(), parallel = create();
+				parallel.setExecutor(executor);
+
+				int[] expected = run(sequential, seed);
+				assertArrayEquals(expected, run(parallel, seed));
+				assertEquals(sequential.getResult().getFitness(), parallel.getResult().getFitness(), 0f);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	// Offspring are bred while niching changes converted objectives of their parents
+	@Test
+	public void pipelinedRunRepeats()
+	{
+		ForkJoinPool executor = new ForkJoinPool(4);
+		try {
+			for (long seed = 1; seed <= 2; ++seed) {
+				NsgaIII<Schedule> first = create(), second = create();
+				for (NsgaIII<Schedule> algorithm : Arrays.asList(first, second)) {
+					algorithm.setExecutor(executor);
+					algorithm.setPipelined(true);
+				}
+
+				assertArrayEquals(run(first, seed), run(second, seed));
+				assertEquals(first.getResult().getFitness(), second.getResult().getFitness(), 0f);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	// Particles draw from their own streams, so they move the same way by threads of executor
+	@Test
+	public void parallelSwarmRunEqualsSequentialRun()
+	{
+		List<Function<Schedule, NsgaIII<Schedule> > > swarms = Arrays.asList(prototype -> new Cso<>(prototype, 2, 2, 80, 3),
+			prototype -> new Fpa<>(prototype, 2, 2, 80, 3), prototype -> new Dlba<>(prototype, 2, 2, 80, 3),
+			prototype -> new GaQpso<>(prototype, 2, 2, 80, 3));
+		ForkJoinPool executor = new ForkJoinPool(4);
+		try {
+			for (Function<Schedule, NsgaIII<Schedule> > swarm : swarms) {
+				NsgaIII<Schedule> sequential = swarm.apply(new Schedule(_configuration)), parallel = swarm.apply(new Schedule(_configuration));
+				parallel.setExecutor(executor);
+
+				int[] expected = run(sequential, 1);
+				assertArrayEquals(sequential.toString(), expected, run(parallel, 1));
+				assertEquals(sequential.getResult().getFitness(), parallel.getResult().getFitness(), 0f);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package hk.edu.gaSchedule.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import hk.edu.gaSchedule.model.Configuration;
+import hk.edu.gaSchedule.model.Schedule;
+
+public class PortfolioTest
+{
+	private static Configuration _configuration;
+
+	@BeforeClass
+	public static void parse() throws Exception
+	{
+		_configuration = new Configuration();
+		_configuration.parse(new File("src/GaSchedule.json"));
+	}
+
+	// Run which reports the same best chromosome at each generation until it is stopped or runs out of generations
+	private static final class FixedRun implements Algorithm<Schedule>
+	{
+		private final Schedule _best;
+
+		private final int _generations;
+
+		private GenerationListener<Schedule> _listener;
+
+		FixedRun(Schedule best, int generations)
+		{
+			_best = best;
+			_generations = generations;
+		}
+
+		public void run(int maxRepeat, double minFitness)
+		{
+			for (int generation = 0; generation < _generations; ++generation) {
+				if (_listener != null && !_listener.onGeneration(generation, _best, new ArrayList<>()))
+					return;
+				try {
+					Thread.sleep(1);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+
+		public Schedule getResult()
+		{
+			return _best;
+		}
+
+		public GenerationListener<Schedule> getGenerationListener()
+		{
+			return _listener;
+		}
+
+		public void setGenerationListener(GenerationListener<Schedule> listener)
+		{
+			_listener = listener;
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void runsSharePoolDuringRace()
+	{
+		Schedule prototype = new Schedule(_configuration);
+		ForkJoinPool own = new ForkJoinPool(2);
+		NsgaIII<Schedule> nsga = new NsgaIII<>(prototype, 2, 2, 80, 3);
+		nsga.setExecutor(own);
+		AsyncGeneticAlgorithm<Schedule> async = new AsyncGeneticAlgorithm<>(prototype, 2, 2, 80, 3);
+		List<Algorithm<Schedule> > algorithms = Arrays.asList(nsga, async, new GeneticAlgorithm<>(prototype, 2, 2, 80, 3));
+
+		// pools used by algorithms which have one, seen at start of their generations
+		Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+		Portfolio<Schedule> portfolio = new Portfolio<>(algorithms, 3, 0, 1.0);
+		portfolio.setGenerationListener((generation, best, immigrants) -> {
+			pools.add(nsga.getExecutor());
+			pools.add(async.getExecutor());
+			return generation < 10;
+		});
+		try {
+			portfolio.run(100, 2.0);
+		}
+		finally {
+			own.shutdown();
+		}
+
+		assertEquals(1, pools.size());
+		ForkJoinPool shared = pools.iterator().next();
+		assertEquals(3, shared.getParallelism());
+		assertSame(own, nsga.getExecutor());
+		assertNull(async.getExecutor());
+		assertNotNull(portfolio.getResult());
+	}
+
+	// Run which lags far behind the leader after warm-up is cancelled, result is the leader's best chromosome
+	@Test(timeout = 60000)
+	public void laggingRunIsCancelled()
+	{
+		Configuration.setSeed(1);
+		Schedule prototype = new Schedule(_configuration), best = null, worst = null;
+		for (int i = 0; i < 50; ++i) {
+			Schedule chromosome = prototype.makeNewFromPrototype();
+			if (best == null || chromosome.getFitness() > best.getFitness())
+				best = chromosome;
+			if (worst == null || chromosome.getFitness() < worst.getFitness())
+				worst = chromosome;
+		}
+		assertTrue(best.getFitness() > worst.getFitness());
+
+		// lagging run would go on until test times out if it isn't cancelled
+		FixedRun lagging = new FixedRun(worst, Integer.MAX_VALUE), leader = new FixedRun(best, 50);
+		GenerationListener<Schedule> own = (generation, chromosome, immigrants) -> true;
+		lagging.setGenerationListener(own);
+		Portfolio<Schedule> portfolio = new Portfolio<>(Arrays.asList(lagging, leader), 2, 0, (best.getFitness() - worst.getFitness()) / 2);
+		portfolio.run(100, 2.0);
+
+		assertTrue(portfolio.isCancelled(0));
+		assertFalse(portfolio.isCancelled(1));
+		assertSame(best, portfolio.getResult());
+		assertSame(own, lagging.getGenerationListener());
+		assertNull(leader.getGenerationListener());
+	}
+}
@@ -0,0 +1,45 @@
+package hk.edu.gaSchedule.model;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+public class ConfigurationTest
+{
+	// Draws numbers in runWith, replaces master generator and reseeds stream of thread after each draw if asked
+	private static int[] draw(long seed, boolean interfere)
+	{
+		int[] numbers = new int[20];
+		Configuration.runWith(new SplittableGenerator(seed), () -> {
+			for (int i = 0; i < numbers.length; ++i) {
+				numbers[i] = Configuration.rand();
+				if (i % 5 == 4)
+					Configuration.seed();
+				else if (interfere)
+					Configuration.setSeed(i);
+			}
+		});
+		return numbers;
+	}
+
+	@Test
+	public void runWithKeepsGeneratorWhenMasterIsReplaced()
+	{
+		Configuration.setSeed(1);
+		int[] expected = draw(7, false);
+		Configuration.setSeed(2);
+		assertArrayEquals(expected, draw(7, true));
+	}
+
+	@Test
+	public void runWithRestoresStreamOfThread()
+	{
+		Configuration.setSeed(3);
+		int first = Configuration.rand();
+		draw(7, false);
+		int second = Configuration.rand();
+
+		Configuration.setSeed(3);
+		assertArrayEquals(new int[] { first, second }, new int[] { Configuration.rand(), Configuration.rand() });
+	}
+}
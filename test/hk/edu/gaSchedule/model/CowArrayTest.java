@@ -0,0 +1,101 @@
+package hk.edu.gaSchedule.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CowArrayTest
+{
+	// Length which spans several pages and ends with partial page
+	private static final int LENGTH = 1000;
+
+	private static final int MAX_COPIES = 20;
+
+	@Test
+	public void intCopiesAreIsolated()
+	{
+		Random random = new Random(1);
+		List<CowIntArray> arrays = new ArrayList<>();
+		List<int[]> expected = new ArrayList<>();
+		arrays.add(new CowIntArray(LENGTH, -1));
+		int[] initial = new int[LENGTH];
+		Arrays.fill(initial, -1);
+		expected.add(initial);
+
+		for (int step = 0; step < 5000; ++step) {
+			int a = random.nextInt(arrays.size());
+			CowIntArray array = arrays.get(a);
+			int[] values = expected.get(a);
+			int i = random.nextInt(LENGTH);
+			switch (arrays.size() < MAX_COPIES ? random.nextInt(10) : 1 + random.nextInt(9)) {
+			case 0: // copy, copies of copies are made as well
+				arrays.add(array.copy());
+				expected.add(values.clone());
+				break;
+			case 1:
+				int value = random.nextInt(3);
+				array.fill(value);
+				Arrays.fill(values, value);
+				break;
+			case 2:
+			case 3:
+				int delta = random.nextInt(7) - 3;
+				assertEquals(values[i] += delta, array.add(i, delta));
+				break;
+			default:
+				array.set(i, values[i] = random.nextInt());
+			}
+
+			for (int k = 0; k < arrays.size(); ++k)
+				assertContent(expected.get(k), arrays.get(k));
+		}
+	}
+
+	@Test
+	public void longCopiesAreIsolated()
+	{
+		Random random = new Random(2);
+		List<CowLongArray> arrays = new ArrayList<>();
+		List<long[]> expected = new ArrayList<>();
+		arrays.add(new CowLongArray(LENGTH));
+		expected.add(new long[LENGTH]);
+
+		for (int step = 0; step < 5000; ++step) {
+			int a = random.nextInt(arrays.size());
+			CowLongArray array = arrays.get(a);
+			long[] values = expected.get(a);
+			switch (arrays.size() < MAX_COPIES ? random.nextInt(10) : 1 + random.nextInt(9)) {
+			case 0:
+				arrays.add(array.copy());
+				expected.add(values.clone());
+				break;
+			case 1:
+				long value = random.nextInt(3);
+				array.fill(value);
+				Arrays.fill(values, value);
+				break;
+			default:
+				int i = random.nextInt(LENGTH);
+				array.set(i, values[i] = random.nextLong());
+			}
+
+			for (int k = 0; k < arrays.size(); ++k) {
+				long[] content = expected.get(k);
+				for (int i = 0; i < LENGTH; ++i)
+					assertEquals(content[i], arrays.get(k).get(i));
+			}
+		}
+	}
+
+	private static void assertContent(int[] expected, CowIntArray array)
+	{
+		assertEquals(expected.length, array.length());
+		for (int i = 0; i < expected.length; ++i)
+			assertEquals(expected[i], array.get(i));
+	}
+}
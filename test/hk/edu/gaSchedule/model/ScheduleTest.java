@@ -0,0 +1,197 @@
+package hk.edu.gaSchedule.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ScheduleTest
+{
+	private static Configuration _configuration;
+
+	@BeforeClass
+	public static void parse() throws Exception
+	{
+		_configuration = new Configuration();
+		_configuration.parse(new File("src/GaSchedule.json"));
+	}
+
+	// Asserts that incrementally updated fitness equals fitness evaluated from scratch on the same genome
+	private static void assertFreshFitness(Schedule schedule)
+	{
+		int[] genome = new int[_configuration.getNumberOfCourseClasses()];
+		schedule.extractGenome(genome, 0);
+		Schedule fresh = schedule.makeNewFromGenome(genome, 0);
+
+		assertEquals(fresh.getFitness(), schedule.getFitness(), 0f);
+		assertArrayEquals(fresh.getObjectives(), schedule.getObjectives(), 0);
+		for (int i = 0; i < genome.length * Criteria.weights.length; ++i)
+			assertEquals("criteria " + i, fresh.getCriteria(i), schedule.getCriteria(i));
+		assertEquals(0, schedule.getDifference(fresh));
+	}
+
+	// Genome and fitness of chromosome at the time it was taken
+	private static final class State
+	{
+		final int[] genome;
+		final float fitness;
+		final double[] objectives;
+		final boolean[] criteria;
+
+		State(Schedule schedule)
+		{
+			genome = new int[_configuration.getNumberOfCourseClasses()];
+			schedule.extractGenome(genome, 0);
+			fitness = schedule.getFitness();
+			objectives = schedule.getObjectives().clone();
+			criteria = new boolean[genome.length * Criteria.weights.length];
+			for (int i = 0; i < criteria.length; ++i)
+				criteria[i] = schedule.getCriteria(i);
+		}
+
+		void assertUnchanged(Schedule schedule)
+		{
+			State current = new State(schedule);
+			assertArrayEquals(genome, current.genome);
+			assertEquals(fitness, current.fitness, 0f);
+			assertArrayEquals(objectives, current.objectives, 0);
+			assertArrayEquals(criteria, current.criteria);
+			assertFreshFitness(schedule);
+		}
+	}
+
+	@Test
+	public void mutationKeepsFitnessOfFreshEvaluation()
+	{
+		Configuration.setSeed(1);
+		for (int n = 0; n < 20; ++n) {
+			Schedule schedule = new Schedule(_configuration).makeNewFromPrototype();
+			for (int step = 0; step < 50; ++step) {
+				schedule.mutation(1 + Configuration.rand(4), 100);
+				assertFreshFitness(schedule);
+			}
+		}
+	}
+
+	@Test
+	public void updatePositionsKeepsFitnessOfFreshEvaluation()
+	{
+		Configuration.setSeed(2);
+		for (int n = 0; n < 20; ++n) {
+			List<Float> initial = new ArrayList<>();
+			Schedule schedule = new Schedule(_configuration).makeNewFromPrototype(initial);
+			float[] positions = new float[initial.size()];
+			for (int step = 0; step < 50; ++step) {
+				// move a few classes, rest keep their slots
+				schedule.extractPositions(positions);
+				for (int i = Configuration.rand(4); i >= 0; --i)
+					positions[Configuration.rand(positions.length)] = (float) Configuration.rand(0.0, 100.0);
+				schedule.updatePositions(positions);
+				assertFreshFitness(schedule);
+
+				schedule.mutation(2, 100);
+				assertFreshFitness(schedule);
+			}
+		}
+	}
+
+	@Test
+	public void cloneKeepsFitnessOfFreshEvaluation()
+	{
+		Configuration.setSeed(3);
+		Schedule schedule = new Schedule(_configuration).makeNewFromPrototype();
+		for (int step = 0; step < 50; ++step) {
+			Schedule copy = schedule.clone();
+			copy.mutation(3, 100);
+			assertFreshFitness(copy);
+			assertFreshFitness(schedule);
+			schedule = copy;
+		}
+	}
+
+	@Test
+	public void updateTakesFitnessOfCachedClassTable()
+	{
+		Configuration.setSeed(6);
+		Schedule prototype = new Schedule(_configuration);
+		prototype.setFitnessCache(new FitnessCache(100));
+		for (int n = 0; n < 20; ++n) {
+			List<Float> initial = new ArrayList<>();
+			Schedule schedule = prototype.makeNewFromPrototype(initial);
+			float[] positions = new float[initial.size()];
+			schedule.extractPositions(positions);
+
+			// copy moves one class and then returns to class table which is in cache
+			Schedule copy = schedule.clone();
+			copy.mutation(1, 100);
+			long hits = prototype.getFitnessCache().getHits();
+			copy.updatePositions(positions);
+			assertEquals(schedule.getHash(), copy.getHash());
+			assertEquals(hits + 1, prototype.getFitnessCache().getHits());
+			assertFreshFitness(copy);
+			assertFreshFitness(schedule);
+		}
+	}
+
+	@Test
+	public void copiesAreIsolated()
+	{
+		Configuration.setSeed(4);
+		Schedule source = new Schedule(_configuration).makeNewFromPrototype();
+		Schedule copy = source.clone();
+		Schedule copyOfCopy = copy.clone();
+		Schedule[] schedules = { source, copy, copyOfCopy };
+
+		for (int step = 0; step < 30; ++step) {
+			// change one of them, others must keep their state
+			int changed = step % schedules.length;
+			State[] states = new State[schedules.length];
+			for (int i = 0; i < schedules.length; ++i)
+				states[i] = new State(schedules[i]);
+
+			schedules[changed].mutation(5, 100);
+			for (int i = 0; i < schedules.length; ++i) {
+				if (i != changed)
+					states[i].assertUnchanged(schedules[i]);
+			}
+			assertFreshFitness(schedules[changed]);
+		}
+	}
+
+	@Test
+	public void recycledChromosomeDoesNotChangeItsCopies()
+	{
+		Configuration.setSeed(5);
+		ChromosomePool<Schedule> pool = new ChromosomePool<>(4);
+		Schedule prototype = new Schedule(_configuration);
+		prototype.setPool(pool);
+
+		Schedule source = prototype.makeNewFromPrototype();
+		Schedule copy = source.clone();
+		Schedule copyOfCopy = copy.clone();
+		State state = new State(copy), stateOfCopy = new State(copyOfCopy);
+
+		// source is reset and filled again when it is taken from pool
+		source.recycle();
+		Schedule reused = prototype.makeNewFromPrototype();
+		assertSame(source, reused);
+		reused.mutation(5, 100);
+		state.assertUnchanged(copy);
+		stateOfCopy.assertUnchanged(copyOfCopy);
+
+		// and the other way round, copy is reused while its source and its own copy are kept
+		State reusedState = new State(reused);
+		copy.recycle();
+		Schedule reusedCopy = prototype.makeNewFromPrototype();
+		assertSame(copy, reusedCopy);
+		reusedCopy.mutation(5, 100);
+		reusedState.assertUnchanged(reused);
+		stateOfCopy.assertUnchanged(copyOfCopy);
+	}
+}
@@ -0,0 +1,98 @@
+package hk.edu.gaSchedule.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class SparseSlotTableTest
+{
+	private static Configuration _configuration;
+
+	@BeforeClass
+	public static void parse() throws Exception
+	{
+		_configuration = new Configuration();
+		_configuration.parse(new File("src/GaSchedule.json"));
+	}
+
+	@Test
+	public void randomChangesMatchDenseTable()
+	{
+		check(new Random(1), false);
+	}
+
+	// Most classes start in slots whose entries are at the end or the beginning of hash table,
+	// so their probe sequences wrap around and deletion shifts entries back across the end
+	@Test
+	public void wrappedClustersMatchDenseTable()
+	{
+		check(new Random(2), true);
+	}
+
+	private static void check(Random random, boolean wrap)
+	{
+		SparseSlotTable sparse = (SparseSlotTable) SlotTable.create(_configuration, true);
+		SlotTable dense = SlotTable.create(_configuration, false);
+		ConfigurationIndex index = _configuration.getIndex();
+		int numberOfClasses = _configuration.getNumberOfCourseClasses();
+
+		int last = 0;
+		for (int slot = 0; slot < sparse.size(); ++slot)
+			last = Math.max(last, sparse.home(slot));
+		List<Integer> wrapping = new ArrayList<>();
+		for (int slot = 0; slot < sparse.size(); ++slot) {
+			int h = sparse.home(slot);
+			if (h >= last - 1 || h == 0)
+				wrapping.add(slot);
+		}
+		assertTrue(wrapping.size() > 2);
+
+		// starting slot of each class, -1 if it isn't in tables
+		int[] slots = new int[numberOfClasses];
+		Arrays.fill(slots, -1);
+		for (int step = 0; step < 20000; ++step) {
+			int classId = random.nextInt(numberOfClasses);
+			int dur = index.getClassDuration(classId);
+			if (slots[classId] >= 0) {
+				sparse.remove(classId, slots[classId], dur);
+				dense.remove(classId, slots[classId], dur);
+				slots[classId] = -1;
+			}
+			else {
+				int slot = wrap && random.nextInt(4) != 0 ? wrapping.get(random.nextInt(wrapping.size())) : random.nextInt(sparse.size());
+				slot = Math.min(slot, sparse.size() - dur);
+				sparse.add(classId, slot, dur);
+				dense.add(classId, slot, dur);
+				slots[classId] = slot;
+			}
+			assertSameSlots(dense, sparse);
+		}
+
+		// emptied table has no entries left behind
+		for (int classId = 0; classId < numberOfClasses; ++classId) {
+			if (slots[classId] >= 0)
+				sparse.remove(classId, slots[classId], index.getClassDuration(classId));
+		}
+		for (int slot = 0; slot < sparse.size(); ++slot)
+			assertEquals(0, sparse.getCount(slot));
+	}
+
+	private static void assertSameSlots(SlotTable expected, SlotTable actual)
+	{
+		for (int slot = 0; slot < expected.size(); ++slot) {
+			assertEquals("count of slot " + slot, expected.getCount(slot), actual.getCount(slot));
+			int e = expected.first(slot), a = actual.first(slot);
+			for (; e != 0; e = expected.next(e), a = actual.next(a))
+				assertEquals("node of slot " + slot, e, a);
+			assertEquals(0, a);
+		}
+	}
+}